@@ -0,0 +1,178 @@
+package com.roomrental.apigateway.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the requests a route has in flight to its backend and rejects the excess with 503.
+ * The cap adapts AIMD-style: a request that fails with a gateway error or whose response is not
+ * committed within {@code latencyThreshold} multiplies it by {@code backoffRatio}; a fast request grows it by one
+ * while the route is using at least half of it. The limit therefore settles near the concurrency
+ * the backend can serve within the threshold, instead of queueing on its connection pool.
+ */
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyLimitGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Kept per route id so a route refresh does not reset the learned limit or re-register meters.
+        RouteLimit limit = limits.compute(config.getRouteId(), (routeId, existing) -> {
+            if (existing == null) {
+                return new RouteLimit(routeId, config);
+            }
+            existing.config = config;
+            return existing;
+        });
+
+        return (exchange, chain) -> {
+            int inFlight = limit.tryAcquire();
+            if (inFlight < 0) {
+                limit.rejected.increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set("Retry-After", "1");
+                return response.setComplete();
+            }
+
+            // Latency is sampled when the response is committed, i.e. once the backend's headers are
+            // in, so a slow client or a long NDJSON stream does not count as a slow backend.
+            long start = System.nanoTime();
+            AtomicBoolean sampled = new AtomicBoolean();
+            exchange.getResponse().beforeCommit(() -> {
+                if (sampled.compareAndSet(false, true)) {
+                    limit.onSample(System.nanoTime() - start, isGatewayError(exchange.getResponse().getStatusCode()), inFlight);
+                }
+                return Mono.empty();
+            });
+            return chain.filter(exchange).doFinally(signal -> {
+                limit.release();
+                if (signal != SignalType.CANCEL && sampled.compareAndSet(false, true)) {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || isGatewayError(status);
+                    limit.onSample(System.nanoTime() - start, failed, inFlight);
+                }
+            });
+        };
+    }
+
+    private static boolean isGatewayError(HttpStatusCode status) {
+        return status != null && (status.value() == HttpStatus.BAD_GATEWAY.value()
+                || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+
+    private class RouteLimit {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // The limit is fractional so additive increases can be scaled; stored as double bits.
+        private final AtomicLong limitBits;
+        private final Counter rejected;
+        private volatile Config config;
+
+        RouteLimit(String routeId, Config config) {
+            this.config = config;
+            this.limitBits = new AtomicLong(Double.doubleToLongBits(config.getInitialLimit()));
+            Gauge.builder("gateway.concurrency.limit", this, RouteLimit::limit)
+                    .tag("route", routeId)
+                    .description("Current adaptive concurrency limit of the route")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.in.flight", inFlight, AtomicInteger::get)
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("gateway.concurrency.rejected")
+                    .tag("route", routeId)
+                    .description("Requests shed because the route was at its concurrency limit")
+                    .register(meterRegistry);
+        }
+
+        double limit() {
+            return Double.longBitsToDouble(limitBits.get());
+        }
+
+        /** Returns the in-flight count including this request, or -1 if the route is at its limit. */
+        int tryAcquire() {
+            int current = inFlight.incrementAndGet();
+            if (current > (int) limit()) {
+                inFlight.decrementAndGet();
+                return -1;
+            }
+            return current;
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        void onSample(long latencyNanos, boolean failed, int inFlightAtStart) {
+            Config current = config;
+            boolean drop = failed || latencyNanos > current.getLatencyThreshold().toNanos();
+            // Only grow when the limit is actually being used, or an idle route would drift to maxLimit.
+            if (!drop && inFlightAtStart * 2 < limit()) {
+                return;
+            }
+            limitBits.updateAndGet(bits -> {
+                double limit = Double.longBitsToDouble(bits);
+                double next = drop
+                        ? Math.max(current.getMinLimit(), limit * current.getBackoffRatio())
+                        : Math.min(current.getMaxLimit(), limit + 1);
+                return Double.doubleToLongBits(next);
+            });
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        private double backoffRatio = 0.9;
+
+        @Override
+        public String getRouteId() { return routeId; }
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+        public int getMaxLimit() { return maxLimit; }
+        public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+        public Duration getLatencyThreshold() { return latencyThreshold; }
+        public void setLatencyThreshold(Duration latencyThreshold) { this.latencyThreshold = latencyThreshold; }
+
+        public double getBackoffRatio() { return backoffRatio; }
+        public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+    }
+}
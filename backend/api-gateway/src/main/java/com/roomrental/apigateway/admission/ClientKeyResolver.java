@@ -0,0 +1,42 @@
+package com.roomrental.apigateway.admission;
+
+import com.roomrental.apigateway.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate-limit key for a request: the verified user id when {@link JwtAuthenticationFilter} has
+ * set one, otherwise the client IP. With {@code app.trustedProxyHops} above zero the IP is taken
+ * from X-Forwarded-For, skipping that many hops added by our own proxies.
+ */
+@Component
+public class ClientKeyResolver implements KeyResolver {
+
+    private final RemoteAddressResolver addressResolver;
+
+    public ClientKeyResolver(@Value("${app.trustedProxyHops:0}") int trustedProxyHops) {
+        this.addressResolver = trustedProxyHops > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxyHops)
+                : new RemoteAddressResolver() {};
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+        if (userId != null) {
+            return Mono.just("user:" + userId);
+        }
+        InetSocketAddress address = addressResolver.resolve(exchange);
+        if (address == null) {
+            return Mono.empty();
+        }
+        return Mono.just("ip:" + address.getAddress().getHostAddress());
+    }
+}
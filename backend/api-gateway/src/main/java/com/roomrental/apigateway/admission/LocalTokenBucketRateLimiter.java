@@ -0,0 +1,124 @@
+package com.roomrental.apigateway.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory token buckets for the RequestRateLimiter filter, one per route and client key.
+ * Each bucket is refilled lazily from its last update time and consumed with a compare-and-set
+ * loop, so concurrent requests never block each other. Configure per route with
+ * {@code local-rate-limiter.replenish-rate} (tokens per second) and
+ * {@code local-rate-limiter.burst-capacity}.
+ *
+ * Limits are per gateway instance; with N replicas a client may get up to N times the rate.
+ */
+@Component
+public class LocalTokenBucketRateLimiter extends AbstractRateLimiter<LocalTokenBucketRateLimiter.Config> {
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Config defaultConfig = new Config();
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public LocalTokenBucketRateLimiter(ConfigurationService configurationService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.rateLimiter.maxBuckets:100000}") long maxBuckets,
+                                       @Value("${app.rateLimiter.idleExpiry:10m}") Duration idleExpiry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+        // An idle bucket refills to capacity anyway, so expiring it loses nothing once it has been
+        // idle longer than burstCapacity / replenishRate.
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Client token buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        TokenBucket bucket = buckets.get(routeId + "|" + id, key -> new TokenBucket(config.getBurstCapacity()));
+        double remaining = bucket.tryConsume(config.getRequestedTokens(), config.getReplenishRate(), config.getBurstCapacity());
+        boolean allowed = remaining >= 0;
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        if (allowed) {
+            headers.put(REMAINING_HEADER, String.valueOf((long) remaining));
+        } else {
+            headers.put(REMAINING_HEADER, "0");
+            long retryAfter = Math.max(1, (long) Math.ceil(-remaining / config.getReplenishRate()));
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(retryAfter));
+        }
+
+        meterRegistry.counter("gateway.ratelimit.requests", "route", routeId, "outcome", allowed ? "allowed" : "rejected")
+                .increment();
+        return Mono.just(new Response(allowed, headers));
+    }
+
+    static final class TokenBucket {
+        private final AtomicReference<State> state;
+
+        TokenBucket(int capacity) {
+            this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+        }
+
+        /**
+         * Takes the tokens if available and returns what is left. A negative result means the
+         * request is denied and is the number of tokens still missing.
+         */
+        double tryConsume(int requested, int replenishRate, int capacity) {
+            while (true) {
+                State current = state.get();
+                long now = System.nanoTime();
+                double refilled = Math.min(capacity,
+                        current.tokens + (now - current.updatedNanos) * replenishRate / 1_000_000_000.0);
+                if (refilled < requested) {
+                    // Denials leave the bucket alone; the refill is applied on the next successful update.
+                    return refilled - requested;
+                }
+                if (state.compareAndSet(current, new State(refilled - requested, now))) {
+                    return refilled - requested;
+                }
+            }
+        }
+
+        private record State(double tokens, long updatedNanos) {}
+    }
+
+    public static class Config {
+        private int replenishRate = 50;
+        private int burstCapacity = 100;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() { return replenishRate; }
+        public void setReplenishRate(int replenishRate) { this.replenishRate = replenishRate; }
+
+        public int getBurstCapacity() { return burstCapacity; }
+        public void setBurstCapacity(int burstCapacity) { this.burstCapacity = burstCapacity; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public void setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; }
+    }
+}
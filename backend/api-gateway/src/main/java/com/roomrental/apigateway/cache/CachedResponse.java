@@ -0,0 +1,75 @@
+package com.roomrental.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+
+/**
+ * A fully buffered backend response, shared between coalesced requests and kept in
+ * {@link ResponseCacheStore} when it is cacheable.
+ */
+public class CachedResponse {
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final Duration ttl;
+    private final Duration freshFor;
+    private final boolean cacheable;
+    private final boolean revalidated;
+    private final long createdAt = System.nanoTime();
+
+    public CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Duration ttl,
+                          Duration freshFor, boolean cacheable) {
+        this(status, headers, body, ttl, freshFor, cacheable, false);
+    }
+
+    private CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Duration ttl,
+                           Duration freshFor, boolean cacheable, boolean revalidated) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.ttl = ttl;
+        this.freshFor = freshFor;
+        this.cacheable = cacheable;
+        this.revalidated = revalidated;
+    }
+
+    public HttpStatusCode getStatus() { return status; }
+
+    public HttpHeaders getHeaders() { return headers; }
+
+    public byte[] getBody() { return body; }
+
+    public Duration getTtl() { return ttl; }
+
+    public Duration getFreshFor() { return freshFor; }
+
+    public boolean isCacheable() { return cacheable; }
+
+    public boolean isRevalidated() { return revalidated; }
+
+    // Past the freshness the backend allowed: checked with If-None-Match before it is used again.
+    public boolean requiresRevalidation() {
+        return System.nanoTime() - createdAt >= freshFor.toNanos();
+    }
+
+    /** This response, fresh again for {@code freshFor} after the backend answered 304 to its ETag. */
+    public CachedResponse revalidated(Duration freshFor) {
+        return new CachedResponse(status, headers, body, ttl, freshFor, cacheable, true);
+    }
+
+    public String getETag() { return headers.getETag(); }
+
+    // Approximate retained size, used as the cache weight.
+    public int weight() {
+        int headerBytes = 0;
+        for (var entry : headers.entrySet()) {
+            headerBytes += entry.getKey().length();
+            for (String value : entry.getValue()) {
+                headerBytes += value.length();
+            }
+        }
+        return body.length + headerBytes + 64;
+    }
+}
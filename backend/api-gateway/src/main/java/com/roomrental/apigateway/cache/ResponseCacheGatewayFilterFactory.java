@@ -0,0 +1,332 @@
+package com.roomrental.apigateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caches anonymous GET responses at the gateway, e.g. {@code ResponseCache=60s} on a route.
+ * Query parameters are normalized into the key, concurrent misses on one key share a single
+ * backend call, and cached entries carry an ETag so clients can revalidate with If-None-Match.
+ * The TTL is set per route; responses marked no-store or private, or that set cookies, are
+ * passed through but never stored. An entry is served as is for the route TTL, or for less if
+ * the backend's s-maxage or max-age is shorter (no-cache: not at all). After that, an entry with
+ * a backend ETag is revalidated with If-None-Match for the rest of its TTL, and a 304 from the
+ * backend is answered from the stored copy.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String RATE_LIMIT_HEADER_PREFIX = "X-RateLimit-";
+
+    @Autowired
+    private ResponseCacheStore store;
+
+    public ResponseCacheGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter picks it up to write the proxied body.
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!isCacheableRequest(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = store.get(key);
+        if (cached != null && !cached.requiresRevalidation()) {
+            return write(exchange, cached, "HIT");
+        }
+
+        CompletableFuture<CachedResponse> call = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> pending = store.joinInFlight(key, call);
+        if (pending != null) {
+            // If the shared call fails or is cancelled, fall back to a call of our own.
+            return Mono.fromFuture(pending)
+                    .flatMap(response -> write(exchange, response, "COALESCED"))
+                    .onErrorResume(e -> chain.filter(exchange));
+        }
+
+        // Another call may have stored the entry between our lookup and registering as the caller.
+        // peek() leaves the hit ratio alone, since this request was already counted as a miss.
+        CachedResponse latest = store.peek(key);
+        if (latest != null && !latest.requiresRevalidation()) {
+            call.complete(latest);
+            store.completeInFlight(key, call);
+            return write(exchange, latest, "HIT");
+        }
+        CachedResponse stored = latest != null ? latest : cached;
+
+        // The client's conditional headers are answered here. Upstream only sees the stored ETag,
+        // so the shared call returns either 304 for the stored copy or the full body. The headers
+        // are copied because mutate() would write through to the client's request.
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.addAll(request.getHeaders());
+        upstreamHeaders.remove(HttpHeaders.IF_NONE_MATCH);
+        upstreamHeaders.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        if (stored != null) {
+            upstreamHeaders.setIfNoneMatch(stored.getETag());
+        }
+        ServerHttpRequest upstream = new ServerHttpRequestDecorator(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return upstreamHeaders;
+            }
+        };
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().request(upstream).response(capturing).build())
+                .then(Mono.fromSupplier(() -> capturing.toCachedResponse(config.getTtl())))
+                .map(response -> stored != null && response.getStatus().value() == HttpStatus.NOT_MODIFIED.value()
+                        ? stored.revalidated(response.getFreshFor()) : response)
+                .doOnNext(response -> {
+                    if (response.isCacheable()) {
+                        store.put(key, response);
+                    }
+                    call.complete(response);
+                })
+                .doOnError(call::completeExceptionally)
+                .doOnCancel(() -> call.completeExceptionally(new CancellationException()))
+                .doFinally(signal -> store.completeInFlight(key, call))
+                .flatMap(response -> write(exchange, response, response.isRevalidated() ? "REVALIDATED" : "MISS"));
+    }
+
+    private boolean isCacheableRequest(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        if (request.getMethod() != HttpMethod.GET || headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null || !cacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    // Path plus query parameters sorted by name, so ?a=1&b=2 and ?b=2&a=1 share an entry.
+    private String cacheKey(ServerHttpRequest request) {
+        Map<String, List<String>> params = new TreeMap<>();
+        request.getQueryParams().forEach((name, values) -> {
+            List<String> nonEmpty = new ArrayList<>();
+            for (String value : values) {
+                if (StringUtils.hasText(value)) {
+                    nonEmpty.add(value.trim());
+                }
+            }
+            if (!nonEmpty.isEmpty()) {
+                params.put(name, nonEmpty);
+            }
+        });
+
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        char separator = '?';
+        for (Map.Entry<String, List<String>> param : params.entrySet()) {
+            for (String value : param.getValue()) {
+                key.append(separator).append(param.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.getHeaders());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (cached.getETag() != null && etagMatches(exchange.getRequest(), cached.getETag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(cached.getStatus());
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private boolean etagMatches(ServerHttpRequest request, String etag) {
+        String strongEtag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(strongEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Buffers the proxied body instead of writing it, so it can be stored and shared. */
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+        private byte[] body = new byte[0];
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .doOnNext(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        this.body = bytes;
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            // The real response is completed once the captured body has been written.
+            return Mono.empty();
+        }
+
+        CachedResponse toCachedResponse(Duration ttl) {
+            HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                // CORS headers depend on the caller's Origin and rate limit headers on the caller's
+                // own bucket; both are added to each response separately.
+                if (!name.regionMatches(true, 0, "Access-Control-", 0, 15)
+                        && !name.regionMatches(true, 0, RATE_LIMIT_HEADER_PREFIX, 0, RATE_LIMIT_HEADER_PREFIX.length())
+                        && !name.equalsIgnoreCase(HttpHeaders.VARY)
+                        && !name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)
+                        && !name.equalsIgnoreCase(HttpHeaders.CONNECTION)) {
+                    headers.addAll(name, values);
+                }
+            });
+
+            // Revalidation needs an ETag the backend recognizes, not one computed here, so without
+            // one the entry is only kept while it is fresh.
+            Duration freshFor = freshness(headers, ttl);
+            Duration keepFor = headers.getETag() != null ? ttl : freshFor;
+            boolean cacheable = isCacheableResponse(status, headers) && !keepFor.isZero();
+            if (cacheable && headers.getETag() == null) {
+                headers.setETag(etag(body));
+            }
+            return new CachedResponse(status, headers, body, keepFor, freshFor, cacheable);
+        }
+
+        // How long the backend lets a shared cache reuse the response without asking, capped at the
+        // route TTL: s-maxage, else max-age; no-cache means every use is revalidated.
+        private Duration freshness(HttpHeaders headers, Duration ttl) {
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl == null) {
+                return ttl;
+            }
+            String directives = cacheControl.toLowerCase(Locale.ROOT).replace(" ", "");
+            if (directives.contains("no-cache")) {
+                return Duration.ZERO;
+            }
+            Long seconds = directiveSeconds(directives, "s-maxage");
+            if (seconds == null) {
+                seconds = directiveSeconds(directives, "max-age");
+            }
+            if (seconds == null) {
+                return ttl;
+            }
+            Duration maxAge = Duration.ofSeconds(Math.max(0, seconds));
+            return maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+        }
+
+        private Long directiveSeconds(String directives, String name) {
+            for (String directive : directives.split(",")) {
+                if (directive.startsWith(name + "=")) {
+                    try {
+                        return Long.parseLong(directive.substring(name.length() + 1).replace("\"", ""));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean isCacheableResponse(HttpStatusCode status, HttpHeaders headers) {
+            if (status.value() != HttpStatus.OK.value() || body.length > store.getMaxEntryBytes()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+                return false;
+            }
+            MediaType contentType = headers.getContentType();
+            if (contentType != null && (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                    || MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType))) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl == null) {
+                return true;
+            }
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            return !directives.contains("no-store") && !directives.contains("private");
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(60);
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+    }
+}
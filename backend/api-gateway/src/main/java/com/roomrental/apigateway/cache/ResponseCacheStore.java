@@ -0,0 +1,97 @@
+package com.roomrental.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared storage for {@link ResponseCacheGatewayFilterFactory}: a Caffeine cache bounded by total
+ * bytes with a per-entry TTL, plus the backend calls currently in flight per cache key.
+ */
+@Component
+public class ResponseCacheStore {
+    public static final String CACHE_NAME = "gatewayResponses";
+
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final int maxEntryBytes;
+
+    public ResponseCacheStore(@Value("${app.responseCache.maxBytes:67108864}") long maxBytes,
+                              @Value("${app.responseCache.maxEntryBytes:1048576}") int maxEntryBytes,
+                              MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.getTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.getTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("gateway.response.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of cacheable gateway requests answered from the response cache")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("gateway.response.cache.coalesced")
+                .description("Requests that waited for an identical in-flight backend call")
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    // Looks up without recording a hit or miss, for repeat lookups within one request.
+    public CachedResponse peek(String key) {
+        return cache.asMap().get(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * Registers the caller as the one backend call for the key. Returns null if it was registered,
+     * or the pending result of the call already in flight.
+     */
+    public CompletableFuture<CachedResponse> joinInFlight(String key, CompletableFuture<CachedResponse> call) {
+        CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+        }
+        return existing;
+    }
+
+    public void completeInFlight(String key, CompletableFuture<CachedResponse> call) {
+        inFlight.remove(key, call);
+    }
+}
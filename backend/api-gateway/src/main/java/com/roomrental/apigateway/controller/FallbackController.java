@@ -0,0 +1,38 @@
+package com.roomrental.apigateway.controller;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Target of the routes' circuit breaker fallbackUri. Answers immediately while a backend is
+ * failing or its breaker is open, instead of letting requests queue on it.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    @RequestMapping("/{service}")
+    public Mono<ResponseEntity<Map<String, String>>> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        HttpStatus status = isTimeout(cause) ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE;
+        Map<String, String> body = Map.of("message", "Error: " + service + " is temporarily unavailable");
+        return Mono.just(ResponseEntity.status(status).header("Retry-After", "5").body(body));
+    }
+
+    private static boolean isTimeout(Throwable cause) {
+        if (cause instanceof ResponseStatusException e) {
+            return e.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return cause instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,34 @@
+package com.roomrental.apigateway.pool;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(BackendPoolProperties.class)
+public class BackendHttpClientConfig {
+
+    @Bean
+    public HttpClientFactory backendPoolHttpClientFactory(HttpClientProperties properties,
+                                                          ServerProperties serverProperties,
+                                                          List<HttpClientCustomizer> customizers,
+                                                          HttpClientSslConfigurer sslConfigurer,
+                                                          BackendPoolProperties backendPools) {
+        return new BackendPoolHttpClientFactory(properties, serverProperties, sslConfigurer, customizers, backendPools);
+    }
+
+    @Bean
+    @ConditionalOnProperty("app.backend-pools.h2c")
+    public HttpClientCustomizer h2cHttpClientCustomizer() {
+        return httpClient -> httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+}
@@ -0,0 +1,85 @@
+package com.roomrental.apigateway.pool;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the gateway's connection provider with a separately sized pool for each backend
+ * service, so one slow backend cannot take every connection or queue requests without bound.
+ */
+public class BackendPoolHttpClientFactory extends HttpClientFactory {
+    private final BackendPoolProperties backendPools;
+
+    public BackendPoolHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                        HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                        BackendPoolProperties backendPools) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.backendPools = backendPools;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        if (pool.getType() == HttpClientProperties.Pool.PoolType.DISABLED) {
+            return ConnectionProvider.newConnection();
+        }
+
+        boolean fixed = pool.getType() == HttpClientProperties.Pool.PoolType.FIXED;
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName());
+        applyShared(builder, pool);
+        if (fixed) {
+            builder.maxConnections(pool.getMaxConnections())
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(Duration.ofMillis(pool.getAcquireTimeout()));
+        } else {
+            builder.maxConnections(Integer.MAX_VALUE)
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(Duration.ZERO);
+        }
+
+        for (Map.Entry<String, BackendPoolProperties.Pool> entry : backendPools.getServices().entrySet()) {
+            BackendPoolProperties.Pool service = entry.getValue();
+            if (service.getUri() == null) {
+                throw new IllegalStateException("app.backend-pools.services." + entry.getKey() + ".uri is required");
+            }
+            int maxConnections = service.getMaxConnections() != null ? service.getMaxConnections()
+                    : fixed ? pool.getMaxConnections() : Integer.MAX_VALUE;
+            builder.forRemoteHost(remoteAddress(service.getUri()), spec -> {
+                applyShared(spec, pool);
+                spec.maxConnections(maxConnections);
+                spec.pendingAcquireMaxCount(service.getPendingAcquireMaxCount() != null
+                        ? service.getPendingAcquireMaxCount() : -1);
+                spec.pendingAcquireTimeout(service.getPendingAcquireTimeout() != null
+                        ? service.getPendingAcquireTimeout() : Duration.ofMillis(pool.getAcquireTimeout()));
+            });
+        }
+        return builder.build();
+    }
+
+    private static void applyShared(ConnectionProvider.ConnectionPoolSpec<?> spec, HttpClientProperties.Pool pool) {
+        if (pool.getMaxIdleTime() != null) {
+            spec.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            spec.maxLifeTime(pool.getMaxLifeTime());
+        }
+        spec.evictInBackground(pool.getEvictionInterval());
+        spec.metrics(pool.isMetrics());
+    }
+
+    // Matches the unresolved address Reactor Netty uses as the pool key for a request URI.
+    private static InetSocketAddress remoteAddress(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return InetSocketAddress.createUnresolved(uri.getHost(), port);
+    }
+}
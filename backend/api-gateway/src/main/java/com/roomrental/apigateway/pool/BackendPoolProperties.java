@@ -0,0 +1,44 @@
+package com.roomrental.apigateway.pool;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool sizing per backend service. Settings not given here fall back to
+ * {@code spring.cloud.gateway.httpclient.pool}.
+ */
+@ConfigurationProperties("app.backend-pools")
+public class BackendPoolProperties {
+    // Speak h2c (with HTTP/1.1 fallback) to the backends; they need server.http2.enabled.
+    private boolean h2c = false;
+    private Map<String, Pool> services = new LinkedHashMap<>();
+
+    public boolean isH2c() { return h2c; }
+    public void setH2c(boolean h2c) { this.h2c = h2c; }
+
+    public Map<String, Pool> getServices() { return services; }
+    public void setServices(Map<String, Pool> services) { this.services = services; }
+
+    public static class Pool {
+        private URI uri;
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout;
+
+        public URI getUri() { return uri; }
+        public void setUri(URI uri) { this.uri = uri; }
+
+        public Integer getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+
+        public Integer getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+        public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+        public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+    }
+}
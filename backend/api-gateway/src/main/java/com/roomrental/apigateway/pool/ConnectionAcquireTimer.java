@@ -0,0 +1,72 @@
+package com.roomrental.apigateway.pool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each proxied request waits for a backend connection: from just before the
+ * routing filter asks the pool for a connection until the request is written to it. Covers
+ * pending-acquire queueing and, for new connections, the TCP connect.
+ */
+@Component
+public class ConnectionAcquireTimer implements GlobalFilter, Ordered, HttpClientCustomizer {
+    private static final String START_KEY = ConnectionAcquireTimer.class.getName() + ".start";
+    private static final String ROUTE_KEY = ConnectionAcquireTimer.class.getName() + ".route";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ConnectionAcquireTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        // Evaluated per subscription, so retried attempts are timed from their own start
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(START_KEY, System.nanoTime()).put(ROUTE_KEY, routeId));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+
+    @Override
+    public HttpClient customize(HttpClient httpClient) {
+        return httpClient.doOnRequest((request, connection) -> record(request.currentContextView()));
+    }
+
+    private void record(ContextView context) {
+        if (!context.hasKey(START_KEY)) {
+            return;
+        }
+        long elapsed = System.nanoTime() - context.<Long>get(START_KEY);
+        timer(context.get(ROUTE_KEY)).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String routeId) {
+        return timers.computeIfAbsent(routeId, id -> Timer.builder("gateway.backend.connection.acquire")
+                .description("Time proxied requests wait for a pooled backend connection")
+                .tag("route", id)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,209 @@
+package com.roomrental.apigateway.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Hedged GETs for latency-sensitive routes, e.g. {@code Hedge=150ms}: if the backend has not
+ * answered within the delay, an identical second request is sent and whichever responds first is
+ * used; the other is cancelled. Set the delay near the route's p95 so only the slow tail pays for
+ * a second request. Hedged responses are buffered, so use it only on routes with small bodies.
+ * Hedges are also capped by a per-route budget, {@code Hedge=150ms,10}, that allows at most that
+ * percentage of extra requests, so a backend that slows down as a whole is not sent twice the load.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final Map<String, HedgeBudget> budgets = new ConcurrentHashMap<>();
+
+    @Autowired
+    private HttpClient httpClient;
+
+    @Autowired
+    private HttpClientProperties httpClientProperties;
+
+    @Autowired
+    private ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public HedgeGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("delay", "budgetPercent");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Shared across refreshes of the route so reloading the config does not refill it.
+        HedgeBudget budget = budgets.computeIfAbsent(String.valueOf(config.getRouteId()), routeId -> new HedgeBudget());
+
+        // Runs once the request URL is resolved and takes the place of the routing filter.
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || isAlreadyRouted(exchange) || url == null
+                    || !("http".equals(url.getScheme()) || "https".equals(url.getScheme()))) {
+                return chain.filter(exchange);
+            }
+            setAlreadyRouted(exchange);
+
+            List<HttpHeadersFilter> headersFilters = headersFiltersProvider.getIfAvailable();
+            HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters, exchange);
+            headers.remove(HttpHeaders.HOST);
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            HttpClient client = routeClient(route);
+            Duration responseTimeout = responseTimeout(route);
+
+            budget.deposit(config.getBudgetPercent() / 100.0);
+            Mono<BufferedResponse> primary = send(client, url, headers, responseTimeout)
+                    .doOnNext(response -> count(config, "primary_won"));
+            Mono<BufferedResponse> hedge = Mono.delay(config.getDelay())
+                    .flatMap(tick -> {
+                        if (!budget.tryWithdraw()) {
+                            count(config, "hedge_skipped");
+                            return Mono.empty();
+                        }
+                        count(config, "hedge_sent");
+                        return send(client, url, headers, responseTimeout);
+                    })
+                    .doOnNext(response -> count(config, "hedge_won"));
+
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "No hedged request succeeded", e))
+                    .flatMap(response -> write(exchange, headersFilters, response));
+        }, RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1);
+    }
+
+    private Mono<BufferedResponse> send(HttpClient client, URI url, HttpHeaders headers, Duration responseTimeout) {
+        Mono<BufferedResponse> response = client
+                .headers(outbound -> headers.forEach(outbound::set))
+                .get()
+                .uri(url)
+                .responseSingle((clientResponse, body) -> body.asByteArray()
+                        .defaultIfEmpty(EMPTY_BODY)
+                        .map(bytes -> {
+                            HttpHeaders responseHeaders = new HttpHeaders();
+                            clientResponse.responseHeaders().forEach(entry -> responseHeaders.add(entry.getKey(), entry.getValue()));
+                            return new BufferedResponse(clientResponse.status().code(), responseHeaders, bytes);
+                        }));
+        return responseTimeout != null ? response.timeout(responseTimeout) : response;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, List<HttpHeadersFilter> headersFilters, BufferedResponse buffered) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters, buffered.headers(), exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.setStatusCode(HttpStatusCode.valueOf(buffered.status()));
+        response.getHeaders().putAll(headers);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(buffered.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(buffered.body())));
+    }
+
+    // Same per-route metadata the routing filter honours, so hedged routes keep their timeouts.
+    private HttpClient routeClient(Route route) {
+        Long connectTimeout = route != null ? millis(route.getMetadata().get(CONNECT_TIMEOUT_ATTR)) : null;
+        return connectTimeout != null
+                ? httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout.intValue())
+                : httpClient;
+    }
+
+    private Duration responseTimeout(Route route) {
+        Long timeout = route != null ? millis(route.getMetadata().get(RESPONSE_TIMEOUT_ATTR)) : null;
+        if (timeout != null) {
+            return timeout >= 0 ? Duration.ofMillis(timeout) : null;
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private static Long millis(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+
+    private void count(Config config, String event) {
+        meterRegistry.counter("gateway.hedge.requests", "route", String.valueOf(config.getRouteId()), "event", event)
+                .increment();
+    }
+
+    /**
+     * Token bucket of hedges: every hedgeable request adds {@code budgetPercent / 100} of a token and
+     * a hedge spends a whole one. A few tokens can be saved up so a burst of slow requests can still
+     * be hedged after a quiet spell.
+     */
+    private static class HedgeBudget {
+        private static final double MAX_TOKENS = 10;
+
+        private double tokens = MAX_TOKENS;
+
+        synchronized void deposit(double amount) {
+            tokens = Math.min(MAX_TOKENS, tokens + amount);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private record BufferedResponse(int status, HttpHeaders headers, byte[] body) {}
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration delay = Duration.ofMillis(150);
+        private int budgetPercent = 10;
+
+        @Override
+        public String getRouteId() { return routeId; }
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+
+        public Duration getDelay() { return delay; }
+        public void setDelay(Duration delay) { this.delay = delay; }
+
+        public int getBudgetPercent() { return budgetPercent; }
+        public void setBudgetPercent(int budgetPercent) { this.budgetPercent = budgetPercent; }
+    }
+}
@@ -0,0 +1,24 @@
+package com.roomrental.apigateway.resilience;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.retry.Jitter;
+import reactor.retry.Repeat;
+import reactor.retry.Retry;
+
+/**
+ * The built-in Retry filter with random jitter added to its backoff, so requests that failed
+ * together do not all retry at the same instant. Takes the same arguments as {@code Retry}.
+ */
+@Component
+public class JitteredRetryGatewayFilterFactory extends RetryGatewayFilterFactory {
+
+    @Override
+    public GatewayFilter apply(String routeId, Repeat<ServerWebExchange> repeat, Retry<ServerWebExchange> retry) {
+        return super.apply(routeId,
+                repeat != null ? repeat.jitter(Jitter.random()) : null,
+                retry != null ? retry.jitter(Jitter.random()) : null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.roomrental.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Verifies bearer tokens at the edge and forwards the caller's identity to the backends as
+ * trusted headers. Requests without a token pass through anonymously; requests with an invalid
+ * or expired token are rejected here with 401. Identity headers sent by clients are always
+ * stripped so they cannot be spoofed.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${app.jwtSecret:mySecretKey}")
+    private String jwtSecret;
+
+    // Paths where a token is ignored, e.g. sign-in with a stale token still in the browser.
+    @Value("${app.jwtSkipPaths:/api/auth/**}")
+    private List<String> skipPaths;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        // HMAC verification is pure CPU work, so the shared parser is safe to call on event-loop threads.
+        jwtParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String token = bearerToken(request);
+
+        if (token == null || isSkipped(request.getPath().value())) {
+            return chain.filter(exchange.mutate().request(stripIdentity(request).build()).build());
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT for {}: {}", request.getPath(), e.getMessage());
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+
+        ServerHttpRequest.Builder builder = stripIdentity(request);
+        builder.header(USER_NAME_HEADER, claims.getSubject());
+        Object userId = claims.get("uid");
+        if (userId != null) {
+            builder.header(USER_ID_HEADER, userId.toString());
+        }
+        String role = claims.get("role", String.class);
+        if (role != null) {
+            builder.header(USER_ROLE_HEADER, role);
+        }
+        return chain.filter(exchange.mutate().request(builder.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return -100;
+    }
+
+    private boolean isSkipped(String path) {
+        for (String pattern : skipPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ServerHttpRequest.Builder stripIdentity(ServerHttpRequest request) {
+        return request.mutate().headers(headers -> {
+            headers.remove(USER_ID_HEADER);
+            headers.remove(USER_NAME_HEADER);
+            headers.remove(USER_ROLE_HEADER);
+        });
+    }
+
+    private String bearerToken(ServerHttpRequest request) {
+        String headerAuth = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.roomrental.apigateway;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Runs the gateway with its real routes and filters, pointed at a stub HTTP server that plays
+ * every backend service. Tests register a handler per backend path, so they control exactly
+ * when the backend sends its headers and body. The stub and the gateway are shared by every
+ * subclass, so each test uses its own paths and, through {@link #clientIp()}, its own client
+ * address and therefore its own rate limit buckets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.jwtSecret=0123456789abcdef0123456789abcdef0123456789abcdef",
+        "app.trustedProxyHops=1",
+        "logging.level.org.springframework.cloud.gateway=INFO",
+        "logging.level.reactor.netty.http.client=INFO"
+})
+public abstract class StubBackendTest {
+
+    private static final Map<String, BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>>> HANDLERS =
+            new ConcurrentHashMap<>();
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    private static final DisposableServer BACKEND = HttpServer.create()
+            .host("localhost")
+            .port(0)
+            .handle((request, response) -> {
+                var handler = HANDLERS.get(URI.create(request.uri()).getPath());
+                return handler != null ? handler.apply(request, response) : response.status(404).send();
+            })
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void backendProperties(DynamicPropertyRegistry registry) {
+        String url = "http://localhost:" + BACKEND.port();
+        registry.add("USER_SERVICE_URL", () -> url);
+        registry.add("PROPERTY_SERVICE_URL", () -> url);
+        registry.add("BOOKING_SERVICE_URL", () -> url);
+    }
+
+    /** Serves {@code path} on the stub backend with the given handler, replacing any earlier one. */
+    protected static void stub(String path, BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handler) {
+        HANDLERS.put(path, handler);
+    }
+
+    /** A client address no other test has used, to be sent as X-Forwarded-For. */
+    protected static String clientIp() {
+        int client = CLIENTS.incrementAndGet();
+        return "10.0." + (client / 256) + "." + (client % 256);
+    }
+
+    /** Sends {@code count} requests at once through the gateway and waits for every response. */
+    protected List<ResponseEntity<String>> concurrently(int count, BiFunction<WebClient, Integer, WebClient.RequestHeadersSpec<?>> request) {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        return Flux.range(0, count)
+                .flatMap(i -> request.apply(client, i).exchangeToMono(response -> response.toEntity(String.class)), count)
+                .collectList()
+                .block();
+    }
+}
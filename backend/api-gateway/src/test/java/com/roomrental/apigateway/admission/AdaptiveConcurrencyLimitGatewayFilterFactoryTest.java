@@ -0,0 +1,101 @@
+package com.roomrental.apigateway.admission;
+
+import com.roomrental.apigateway.StubBackendTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The search route starts with a concurrency limit of 20; each request below searches its own
+ * city so none of them is answered from the response cache. The catch-all property route lowers
+ * its limit for responses whose headers take longer than 1s.
+ */
+class AdaptiveConcurrencyLimitGatewayFilterFactoryTest extends StubBackendTest {
+
+    private static final String PROPERTY_ROUTE = "property-service";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shedsRequestsBeyondTheLimitWith503() {
+        AtomicInteger calls = new AtomicInteger();
+        stub("/api/properties/search", (request, response) -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofSeconds(1)).then(Mono.defer(() -> response.sendString(Mono.just("[]")).then()));
+        });
+
+        String client = clientIp();
+        List<ResponseEntity<String>> responses = concurrently(25, (webClient, i) -> webClient.get()
+                .uri("/api/properties/search?city=Limit" + i)
+                .header("X-Forwarded-For", client));
+
+        List<ResponseEntity<String>> shed = responses.stream()
+                .filter(r -> r.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+                .toList();
+        assertEquals(5, shed.size());
+        assertEquals(20, calls.get());
+        for (ResponseEntity<String> response : shed) {
+            assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        }
+        assertEquals(20, responses.stream().filter(r -> r.getStatusCode() == HttpStatus.OK).count());
+    }
+
+    @Test
+    void slowStreamWithPromptHeadersKeepsTheLimit() {
+        // Headers at once, then a line every 300ms: the whole response takes well over the 1s threshold.
+        stub("/api/properties/landlord/7", (request, response) -> response
+                .header("Content-Type", "application/x-ndjson")
+                .sendHeaders()
+                .sendString(Flux.interval(Duration.ofMillis(300)).take(5).map(i -> "{\"id\":" + i + "}\n")));
+        double before = limit(PROPERTY_ROUTE);
+
+        long start = System.nanoTime();
+        getThroughPropertyRoute("/api/properties/landlord/7");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis > 1000, "stream took only " + elapsedMillis + "ms");
+        assertEquals(before, limit(PROPERTY_ROUTE));
+    }
+
+    @Test
+    void slowHeadersLowerTheLimit() {
+        stub("/api/properties/landlord/8", (request, response) -> Mono.delay(Duration.ofMillis(1200))
+                .then(Mono.defer(() -> response.header("Content-Type", "application/x-ndjson")
+                        .sendString(Mono.just("{\"id\":0}\n"))
+                        .then())));
+        double before = limit(PROPERTY_ROUTE);
+
+        getThroughPropertyRoute("/api/properties/landlord/8");
+
+        assertTrue(limit(PROPERTY_ROUTE) < before, "limit stayed at " + before);
+    }
+
+    private void getThroughPropertyRoute(String path) {
+        webTestClient.mutate().responseTimeout(Duration.ofSeconds(10)).build()
+                .get().uri(path)
+                .header("X-Forwarded-For", clientIp())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class);
+    }
+
+    private double limit(String route) {
+        return meterRegistry.get("gateway.concurrency.limit").tag("route", route).gauge().value();
+    }
+}
@@ -0,0 +1,58 @@
+package com.roomrental.apigateway.admission;
+
+import com.roomrental.apigateway.StubBackendTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The property streaming route allows a burst of 10 requests per client, refilled at 5 per second.
+ */
+class LocalTokenBucketRateLimiterTest extends StubBackendTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void rejectsRequestsBeyondTheBurstWithRateLimitHeaders() {
+        AtomicInteger calls = new AtomicInteger();
+        stub("/api/properties/search/stream", (request, response) -> {
+            calls.incrementAndGet();
+            return response.header("Content-Type", "application/x-ndjson").sendString(Mono.just("{\"id\":1}\n"));
+        });
+
+        String client = clientIp();
+        List<ResponseEntity<String>> responses = concurrently(15, (webClient, i) -> webClient.get()
+                .uri("/api/properties/search/stream")
+                .header("X-Forwarded-For", client));
+
+        List<ResponseEntity<String>> rejected = responses.stream()
+                .filter(r -> r.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS)
+                .toList();
+        // The bucket refills at 5 per second, so a slow machine may let one more through.
+        assertTrue(rejected.size() >= 4, rejected.size() + " of 15 requests rejected");
+        assertEquals(15 - rejected.size(), calls.get());
+        for (ResponseEntity<String> response : rejected) {
+            assertEquals("0", response.getHeaders().getFirst(LocalTokenBucketRateLimiter.REMAINING_HEADER));
+            assertEquals("5", response.getHeaders().getFirst(LocalTokenBucketRateLimiter.REPLENISH_RATE_HEADER));
+            assertEquals("10", response.getHeaders().getFirst(LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER));
+            assertTrue(Long.parseLong(response.getHeaders().getFirst(LocalTokenBucketRateLimiter.RETRY_AFTER_HEADER)) >= 1);
+        }
+
+        // Another client has a bucket of its own.
+        webTestClient.get().uri("/api/properties/search/stream")
+                .header("X-Forwarded-For", clientIp())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(LocalTokenBucketRateLimiter.REMAINING_HEADER, "9");
+    }
+}
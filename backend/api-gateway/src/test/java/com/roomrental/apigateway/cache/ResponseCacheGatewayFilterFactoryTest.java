@@ -0,0 +1,101 @@
+package com.roomrental.apigateway.cache;
+
+import com.roomrental.apigateway.StubBackendTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The search route is cached with {@code ResponseCache=30s}. Each test searches its own city,
+ * so it gets its own cache entry.
+ */
+class ResponseCacheGatewayFilterFactoryTest extends StubBackendTest {
+
+    private static final String CACHE_STATUS = ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void concurrentMissesShareOneBackendCall() {
+        AtomicInteger calls = new AtomicInteger();
+        stub("/api/properties/search", (request, response) -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(300)).then(Mono.defer(() -> response
+                    .header("ETag", "\"coalesced\"")
+                    .sendString(Mono.just("[{\"city\":\"Coalesce\"}]"))
+                    .then()));
+        });
+
+        String client = clientIp();
+        List<ResponseEntity<String>> responses = concurrently(10, (webClient, i) -> webClient.get()
+                .uri("/api/properties/search?city=Coalesce")
+                .header("X-Forwarded-For", client));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, responses.stream().filter(r -> "MISS".equals(r.getHeaders().getFirst(CACHE_STATUS))).count());
+        for (ResponseEntity<String> response : responses) {
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("[{\"city\":\"Coalesce\"}]", response.getBody());
+        }
+    }
+
+    @Test
+    void answersConditionalRequestsAndRevalidatesWithTheBackend() throws InterruptedException {
+        AtomicInteger fullResponses = new AtomicInteger();
+        AtomicInteger notModified = new AtomicInteger();
+        stub("/api/properties/search", (request, response) -> {
+            response.header("ETag", "\"v1\"").header("Cache-Control", "max-age=0, s-maxage=1");
+            if ("\"v1\"".equals(request.requestHeaders().get("If-None-Match"))) {
+                notModified.incrementAndGet();
+                return response.status(304).send();
+            }
+            fullResponses.incrementAndGet();
+            return response.sendString(Mono.just("[{\"city\":\"Revalidate\"}]"));
+        });
+        String client = clientIp();
+
+        webTestClient.get().uri("/api/properties/search?city=Revalidate")
+                .header("X-Forwarded-For", client)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS, "MISS")
+                .expectHeader().valueEquals("ETag", "\"v1\"");
+
+        // The client's own If-None-Match is answered from the fresh entry.
+        webTestClient.get().uri("/api/properties/search?city=Revalidate")
+                .header("X-Forwarded-For", client)
+                .header("If-None-Match", "\"v1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(CACHE_STATUS, "HIT");
+        assertEquals(1, fullResponses.get());
+        assertEquals(0, notModified.get());
+
+        // Past s-maxage the entry is revalidated, and the backend's 304 is answered from the stored body.
+        Thread.sleep(1100);
+        webTestClient.get().uri("/api/properties/search?city=Revalidate")
+                .header("X-Forwarded-For", client)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS, "REVALIDATED")
+                .expectBody(String.class).isEqualTo("[{\"city\":\"Revalidate\"}]");
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModified.get());
+
+        webTestClient.get().uri("/api/properties/search?city=Revalidate")
+                .header("X-Forwarded-For", client)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS, "HIT");
+    }
+}
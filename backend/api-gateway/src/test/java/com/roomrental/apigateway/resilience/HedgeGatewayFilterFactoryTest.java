@@ -0,0 +1,103 @@
+package com.roomrental.apigateway.resilience;
+
+import com.roomrental.apigateway.StubBackendTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The details route is hedged with {@code Hedge=150ms,10}. The stub answers the first request for
+ * a property slowly and any repeat of it at once, so a response that comes back before the slow
+ * one can only have come from a hedge. The budget starts full and is shared by the whole route,
+ * hence the fixed order.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class HedgeGatewayFilterFactoryTest extends StubBackendTest {
+
+    private static final String ROUTE = "property-service-details-cached";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @Order(1)
+    void sendsHedgeAfterDelayAndUsesTheFirstResponse() {
+        List<Long> arrivals = new CopyOnWriteArrayList<>();
+        stub("/api/properties/1001", (request, response) -> {
+            arrivals.add(System.nanoTime());
+            return arrivals.size() == 1
+                    ? respondAfter(response, Duration.ofSeconds(1), "primary")
+                    : respondAfter(response, Duration.ZERO, "hedge");
+        });
+
+        long start = System.nanoTime();
+        webTestClient.get().uri("/api/properties/1001")
+                .header("X-Forwarded-For", clientIp())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("hedge");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(2, arrivals.size());
+        long hedgeDelayMillis = (arrivals.get(1) - start) / 1_000_000;
+        assertTrue(hedgeDelayMillis >= 150 && hedgeDelayMillis < 500, "hedge sent after " + hedgeDelayMillis + "ms");
+        assertTrue(elapsedMillis < 1000, "answered after " + elapsedMillis + "ms, i.e. not by the hedge");
+        assertEquals(1, count("hedge_won"));
+    }
+
+    @Test
+    @Order(2)
+    void hedgesNoMoreThanTheBudgetAllows() {
+        int requests = 30;
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            AtomicInteger attempts = new AtomicInteger();
+            stub("/api/properties/" + (2000 + i), (request, response) -> {
+                calls.incrementAndGet();
+                return attempts.incrementAndGet() == 1
+                        ? respondAfter(response, Duration.ofMillis(300), "primary")
+                        : respondAfter(response, Duration.ZERO, "hedge");
+            });
+        }
+
+        String client = clientIp();
+        for (int i = 0; i < requests; i++) {
+            webTestClient.get().uri("/api/properties/" + (2000 + i))
+                    .header("X-Forwarded-For", client)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        // Every request was slow enough to hedge, but the budget holds 10 tokens at most and each
+        // request adds a tenth of one.
+        int hedges = calls.get() - requests;
+        assertTrue(hedges > 0, "no request was hedged");
+        assertTrue(hedges <= 10 + requests / 10, hedges + " hedges for " + requests + " requests");
+        assertTrue(count("hedge_skipped") >= requests - hedges);
+    }
+
+    private Mono<Void> respondAfter(HttpServerResponse response, Duration delay, String body) {
+        return Mono.delay(delay).then(Mono.defer(() -> response.sendString(Mono.just(body)).then()));
+    }
+
+    private double count(String event) {
+        return meterRegistry.counter("gateway.hedge.requests", "route", ROUTE, "event", event).count();
+    }
+}
@@ -0,0 +1,51 @@
+package com.roomrental.apigateway.resilience;
+
+import com.roomrental.apigateway.StubBackendTest;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports take as long as the table takes to read, so they go through a breaker of their own
+ * that does not count them as slow calls against the service's main breaker.
+ */
+class StreamingCircuitBreakerTest extends StubBackendTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Test
+    void slowExportIsRecordedByTheStreamingBreakerOnly() {
+        // Longer than the 2s slow-call threshold of the default breakers.
+        stub("/api/properties/export", (request, response) -> Mono.delay(Duration.ofMillis(2500))
+                .then(Mono.defer(() -> response.header("Content-Type", "application/x-ndjson")
+                        .sendString(Flux.just("{\"id\":1}\n", "{\"id\":2}\n"))
+                        .then())));
+        CircuitBreaker.Metrics streaming = circuitBreakerRegistry.circuitBreaker("property-service-streaming").getMetrics();
+        CircuitBreaker.Metrics shared = circuitBreakerRegistry.circuitBreaker("property-service").getMetrics();
+        int streamingCalls = streaming.getNumberOfBufferedCalls();
+        int sharedCalls = shared.getNumberOfBufferedCalls();
+
+        webTestClient.mutate().responseTimeout(Duration.ofSeconds(10)).build()
+                .get().uri("/api/properties/export")
+                .header("X-Forwarded-For", clientIp())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+
+        assertEquals(streamingCalls + 1, streaming.getNumberOfBufferedCalls());
+        assertEquals(0, streaming.getNumberOfSlowCalls());
+        assertEquals(sharedCalls, shared.getNumberOfBufferedCalls());
+    }
+}
@@ -0,0 +1,47 @@
+package com.roomrental.bookingservice.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DatabaseInitializer implements SmartInitializingSingleton {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Runs once the schema exists but before the web server accepts requests.
+    @Override
+    public void afterSingletonsInstantiated() {
+        syncIdSequence("bookings", "bookings_seq");
+        createOverlapConstraint();
+    }
+
+    // Hibernate's ddl-auto cannot express exclusion constraints, so the no-double-booking
+    // guarantee is added here: no two active bookings of a property may share a day. Booking
+    // admission relies on it, so the service does not start without it.
+    private void createOverlapConstraint() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute(
+                    "DO $$ BEGIN " +
+                    "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap') THEN " +
+                    "ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap EXCLUDE USING gist (" +
+                    "property_id WITH =, daterange(start_date, end_date, '[]') WITH &&) " +
+                    "WHERE (status IN ('PENDING', 'CONFIRMED')); " +
+                    "END IF; END $$");
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not create the bookings_no_overlap constraint; " +
+                    "check that btree_gist is available and that no active bookings of a property overlap", e);
+        }
+    }
+
+    // Ids come from pooled sequences (allocationSize 50) since the tables stopped using identity
+    // columns. Move the sequence past existing rows so no id is handed out twice.
+    private void syncIdSequence(String table, String sequence) {
+        jdbcTemplate.execute("SELECT setval('" + sequence + "', GREATEST(MAX(id), " +
+                "(SELECT last_value FROM " + sequence + "))) FROM " + table + " HAVING MAX(id) IS NOT NULL");
+    }
+}
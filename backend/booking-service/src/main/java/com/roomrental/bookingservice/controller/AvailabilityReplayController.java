@@ -0,0 +1,20 @@
+package com.roomrental.bookingservice.controller;
+
+import com.roomrental.bookingservice.service.AvailabilityEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/internal/availability")
+public class AvailabilityReplayController {
+
+    @Autowired
+    private AvailabilityEventPublisher availabilityEventPublisher;
+
+    @PostMapping("/replay")
+    public ResponseEntity<Void> replay() {
+        availabilityEventPublisher.replay();
+        return ResponseEntity.accepted().build();
+    }
+}
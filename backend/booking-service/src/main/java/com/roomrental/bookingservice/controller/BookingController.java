@@ -1,15 +1,23 @@
 package com.roomrental.bookingservice.controller;
 
+import com.roomrental.bookingservice.dto.AvailabilityCalendar;
 import com.roomrental.bookingservice.dto.BookingCreateRequest;
 import com.roomrental.bookingservice.model.Booking;
 import com.roomrental.bookingservice.model.BookingStatus;
 import com.roomrental.bookingservice.service.BookingService;
+import com.roomrental.bookingservice.util.ETags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +25,10 @@ import java.util.Optional;
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_LIMIT = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private BookingService bookingService;
 
@@ -31,40 +43,71 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<Booking>> getAllBookings(@RequestParam(defaultValue = "0") Long afterId,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        WebRequest webRequest) {
+        int pageSize = clampLimit(limit);
+        List<Booking> bookings = bookingService.getBookingsAfter(afterId, pageSize);
+        return keysetPage(bookings, pageSize, webRequest);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        StreamingResponseBody body = out -> bookingService.exportBookings(out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
+    // The version is read with a single-column query, so a matching If-None-Match is answered
+    // without loading or serializing the booking.
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBookingById(@PathVariable Long id) {
+    public ResponseEntity<Booking> getBookingById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<LocalDateTime> version = bookingService.getBookingVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(ETags.forEntity(id, version.get()))) {
+            return notModified();
+        }
         Optional<Booking> booking = bookingService.getBookingById(id);
-        return booking.map(ResponseEntity::ok)
+        return booking.map(b -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(b))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/tenant/{tenantId}")
-    public ResponseEntity<List<Booking>> getBookingsByTenant(@PathVariable Long tenantId) {
+    public ResponseEntity<List<Booking>> getBookingsByTenant(@PathVariable Long tenantId, WebRequest webRequest) {
         List<Booking> bookings = bookingService.getBookingsByTenant(tenantId);
-        return ResponseEntity.ok(bookings);
+        if (webRequest.checkNotModified(etag(bookings))) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(bookings);
     }
 
     @GetMapping("/landlord/{landlordId}")
-    public ResponseEntity<List<Booking>> getBookingsByLandlord(@PathVariable Long landlordId) {
+    public ResponseEntity<List<Booking>> getBookingsByLandlord(@PathVariable Long landlordId, WebRequest webRequest) {
         List<Booking> bookings = bookingService.getBookingsByLandlord(landlordId);
-        return ResponseEntity.ok(bookings);
+        if (webRequest.checkNotModified(etag(bookings))) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(bookings);
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<Booking>> getBookingsByProperty(@PathVariable Long propertyId) {
+    public ResponseEntity<List<Booking>> getBookingsByProperty(@PathVariable Long propertyId, WebRequest webRequest) {
         List<Booking> bookings = bookingService.getBookingsByProperty(propertyId);
-        return ResponseEntity.ok(bookings);
+        if (webRequest.checkNotModified(etag(bookings))) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(bookings);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable BookingStatus status) {
-        List<Booking> bookings = bookingService.getBookingsByStatus(status);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable BookingStatus status,
+                                                             @RequestParam(defaultValue = "0") Long afterId,
+                                                             @RequestParam(defaultValue = "100") int limit,
+                                                             WebRequest webRequest) {
+        int pageSize = clampLimit(limit);
+        List<Booking> bookings = bookingService.getBookingsByStatusAfter(status, afterId, pageSize);
+        return keysetPage(bookings, pageSize, webRequest);
     }
 
     @GetMapping("/property/{propertyId}/availability")
@@ -75,23 +118,55 @@ public class BookingController {
         return ResponseEntity.ok(available);
     }
 
+    @GetMapping("/property/{propertyId}/calendar")
+    public ResponseEntity<?> getAvailabilityCalendar(@PathVariable Long propertyId,
+                                                     @RequestParam LocalDate from,
+                                                     @RequestParam LocalDate to) {
+        try {
+            List<AvailabilityCalendar> calendars = bookingService.getAvailabilityCalendars(List.of(propertyId), from, to);
+            return ResponseEntity.ok(calendars.get(0));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getAvailabilityCalendars(@RequestParam List<Long> propertyIds,
+                                                      @RequestParam LocalDate from,
+                                                      @RequestParam LocalDate to) {
+        try {
+            List<AvailabilityCalendar> calendars = bookingService.getAvailabilityCalendars(propertyIds, from, to);
+            return ResponseEntity.ok(calendars);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}/status")
-    public ResponseEntity<Booking> updateBookingStatus(@PathVariable Long id,
-                                                      @RequestParam BookingStatus status) {
-        Booking updatedBooking = bookingService.updateBookingStatus(id, status);
-        if (updatedBooking != null) {
-            return ResponseEntity.ok(updatedBooking);
+    public ResponseEntity<?> updateBookingStatus(@PathVariable Long id,
+                                                 @RequestParam BookingStatus status) {
+        try {
+            Booking updatedBooking = bookingService.updateBookingStatus(id, status);
+            if (updatedBooking != null) {
+                return ResponseEntity.ok(updatedBooking);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
 
     @PutMapping("/{id}/confirm")
-    public ResponseEntity<Booking> confirmBooking(@PathVariable Long id) {
-        Booking booking = bookingService.confirmBooking(id);
-        if (booking != null) {
-            return ResponseEntity.ok(booking);
+    public ResponseEntity<?> confirmBooking(@PathVariable Long id) {
+        try {
+            Booking booking = bookingService.confirmBooking(id);
+            if (booking != null) {
+                return ResponseEntity.ok(booking);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
 
     @PutMapping("/{id}/cancel")
@@ -111,4 +186,30 @@ public class BookingController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // checkNotModified has already set the ETag header; clients must revalidate before reusing a body.
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+    }
+
+    // Taken from the rows being returned, so no extra query is needed to answer If-None-Match.
+    private static String etag(List<Booking> bookings) {
+        return ETags.strong(ETags.version(bookings, Booking::getId, Booking::getUpdatedAt));
+    }
+
+    // A full page means there may be more rows; the client passes the cursor back as afterId.
+    private static ResponseEntity<List<Booking>> keysetPage(List<Booking> bookings, int limit, WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag(bookings))) {
+            return notModified();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (bookings.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(bookings.get(bookings.size() - 1).getId()));
+        }
+        return response.body(bookings);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.roomrental.bookingservice.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AvailabilityCalendar {
+    private Long propertyId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DateRange> bookedRanges = new ArrayList<>();
+
+    public AvailabilityCalendar() {}
+
+    public AvailabilityCalendar(Long propertyId, LocalDate from, LocalDate to) {
+        this.propertyId = propertyId;
+        this.from = from;
+        this.to = to;
+    }
+
+    public Long getPropertyId() { return propertyId; }
+    public void setPropertyId(Long propertyId) { this.propertyId = propertyId; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public List<DateRange> getBookedRanges() { return bookedRanges; }
+    public void setBookedRanges(List<DateRange> bookedRanges) { this.bookedRanges = bookedRanges; }
+}
@@ -0,0 +1,36 @@
+package com.roomrental.bookingservice.dto;
+
+import java.time.LocalDate;
+
+public class AvailabilityEvent {
+    private Long bookingId;
+    private Long propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean active;
+
+    public AvailabilityEvent() {}
+
+    public AvailabilityEvent(Long bookingId, Long propertyId, LocalDate startDate, LocalDate endDate, boolean active) {
+        this.bookingId = bookingId;
+        this.propertyId = propertyId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.active = active;
+    }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getPropertyId() { return propertyId; }
+    public void setPropertyId(Long propertyId) { this.propertyId = propertyId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+}
@@ -0,0 +1,31 @@
+package com.roomrental.bookingservice.dto;
+
+import java.time.LocalDate;
+
+public class BookedRange {
+    private Long bookingId;
+    private Long propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public BookedRange() {}
+
+    public BookedRange(Long bookingId, Long propertyId, LocalDate startDate, LocalDate endDate) {
+        this.bookingId = bookingId;
+        this.propertyId = propertyId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getPropertyId() { return propertyId; }
+    public void setPropertyId(Long propertyId) { this.propertyId = propertyId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
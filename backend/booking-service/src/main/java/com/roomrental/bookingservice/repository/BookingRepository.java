@@ -1,14 +1,23 @@
 package com.roomrental.bookingservice.repository;
 
+import com.roomrental.bookingservice.dto.BookedRange;
 import com.roomrental.bookingservice.model.Booking;
 import com.roomrental.bookingservice.model.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -21,6 +30,17 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByStatus(BookingStatus status);
 
+    @Query("SELECT b.updatedAt FROM Booking b WHERE b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    List<Booking> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<Booking> findByStatusAndIdGreaterThanOrderByIdAsc(BookingStatus status, Long afterId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b ORDER BY b.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Booking> streamAll();
+
     @Query("SELECT b FROM Booking b WHERE b.propertyId = :propertyId AND " +
            "b.status IN ('CONFIRMED', 'PENDING') AND " +
            "((b.startDate <= :endDate AND b.endDate >= :startDate))")
@@ -33,4 +53,21 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "b.endDate >= :currentDate")
     List<Booking> findActiveBookingsForProperty(@Param("propertyId") Long propertyId,
                                               @Param("currentDate") LocalDate currentDate);
+
+    @Query("SELECT new com.roomrental.bookingservice.dto.BookedRange(b.id, b.propertyId, b.startDate, b.endDate) " +
+           "FROM Booking b WHERE b.status IN ('CONFIRMED', 'PENDING')")
+    List<BookedRange> findAllActiveRanges();
+
+    @Query("SELECT new com.roomrental.bookingservice.dto.BookedRange(b.id, b.propertyId, b.startDate, b.endDate) " +
+           "FROM Booking b WHERE b.propertyId = :propertyId AND b.status IN ('CONFIRMED', 'PENDING')")
+    List<BookedRange> findActiveRangesByPropertyId(@Param("propertyId") Long propertyId);
+
+    @Query("SELECT new com.roomrental.bookingservice.dto.BookedRange(b.id, b.propertyId, b.startDate, b.endDate) " +
+           "FROM Booking b WHERE b.propertyId IN :propertyIds AND " +
+           "b.status IN ('CONFIRMED', 'PENDING') AND " +
+           "b.startDate <= :to AND b.endDate >= :from " +
+           "ORDER BY b.propertyId, b.startDate")
+    List<BookedRange> findActiveRangesInWindow(@Param("propertyIds") Collection<Long> propertyIds,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.roomrental.bookingservice.service;
+
+import com.roomrental.bookingservice.config.InternalApiFilter;
+import com.roomrental.bookingservice.dto.AvailabilityEvent;
+import com.roomrental.bookingservice.model.Booking;
+import com.roomrental.bookingservice.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes booking date ranges to property-service so it can filter search results by date
+ * without calling back here. A single sender thread keeps events in the order they happened.
+ * Failed events are retried, and the full set of active ranges is resent at startup, on a fixed
+ * interval and after any event that could not be delivered, so property-service converges on
+ * the booking table even when events are lost.
+ */
+@Component
+public class AvailabilityEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityEventPublisher.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${app.propertyServiceUrl:http://localhost:8082}")
+    private String propertyServiceUrl;
+
+    @Value("${app.internalToken:}")
+    private String internalToken;
+
+    @Value("${app.availability.retryBackoffMs:500}")
+    private long retryBackoffMs;
+
+    @Value("${app.availability.resyncDelayMs:30000}")
+    private long resyncDelayMs;
+
+    private RestClient restClient;
+
+    private final AtomicBoolean resyncScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "availability-event-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        restClient = RestClient.builder()
+                .baseUrl(propertyServiceUrl)
+                .defaultHeader(InternalApiFilter.INTERNAL_TOKEN_HEADER, internalToken)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdown();
+    }
+
+    // Sent only once the booking write is committed; a rolled back write publishes nothing.
+    public void publish(Booking booking) {
+        AvailabilityEvent event = new AvailabilityEvent(booking.getId(), booking.getPropertyId(),
+                booking.getStartDate(), booking.getEndDate(), AvailabilityIndex.isActive(booking.getStatus()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sender.execute(() -> send(event));
+                }
+            });
+        } else {
+            sender.execute(() -> send(event));
+        }
+    }
+
+    // The first run seeds property-service's copy of the ranges after startup.
+    @Scheduled(initialDelayString = "${app.availability.seedDelayMs:10000}",
+               fixedDelayString = "${app.availability.reconcileIntervalMs:900000}")
+    public void replay() {
+        sender.execute(this::sendSnapshot);
+    }
+
+    private void send(AvailabilityEvent event) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                restClient.post().uri("/internal/availability/events").body(event).retrieve().toBodilessEntity();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    logger.warn("Could not publish availability of booking {}, resyncing in {} ms: {}",
+                            event.getBookingId(), resyncDelayMs, e.getMessage());
+                    scheduleResync();
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(retryBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Read on the sender thread, so every event queued before this task has already been sent
+    // and none queued after it can be overwritten by an older snapshot.
+    private void sendSnapshot() {
+        try {
+            List<AvailabilityEvent> snapshot = bookingRepository.findAllActiveRanges().stream()
+                    .map(range -> new AvailabilityEvent(range.getBookingId(), range.getPropertyId(),
+                            range.getStartDate(), range.getEndDate(), true))
+                    .toList();
+            restClient.put().uri("/internal/availability/snapshot").body(snapshot).retrieve().toBodilessEntity();
+            logger.info("Sent availability snapshot of {} active bookings", snapshot.size());
+        } catch (RuntimeException e) {
+            logger.warn("Could not send availability snapshot, retrying in {} ms: {}", resyncDelayMs, e.getMessage());
+            scheduleResync();
+        }
+    }
+
+    private void scheduleResync() {
+        if (resyncScheduled.compareAndSet(false, true)) {
+            sender.schedule(() -> {
+                resyncScheduled.set(false);
+                sendSnapshot();
+            }, resyncDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
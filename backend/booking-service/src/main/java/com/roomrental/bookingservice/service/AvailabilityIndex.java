@@ -0,0 +1,169 @@
+package com.roomrental.bookingservice.service;
+
+import com.roomrental.bookingservice.dto.BookedRange;
+import com.roomrental.bookingservice.model.Booking;
+import com.roomrental.bookingservice.model.BookingStatus;
+import com.roomrental.bookingservice.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory view of the PENDING and CONFIRMED date ranges of every property, so availability
+ * reads do not need a round trip to the database. Other instances write to the same table, so a
+ * property's ranges are reloaded once they are older than {@code app.booking.availabilityMaxStaleness},
+ * and {@link BookingService} reloads them under the property's stripe lock before admitting a write.
+ */
+@Component
+public class AvailabilityIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${app.booking.availabilityMaxStaleness:5s}")
+    private Duration maxStaleness;
+
+    private final Map<Long, PropertyCalendar> calendars = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<BookedRange> ranges = bookingRepository.findAllActiveRanges();
+        for (BookedRange range : ranges) {
+            calendarFor(range.getPropertyId()).put(range.getBookingId(), range.getStartDate(), range.getEndDate());
+        }
+        logger.info("Availability index loaded {} active bookings across {} properties",
+                ranges.size(), calendars.size());
+    }
+
+    public boolean isAvailable(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        PropertyCalendar calendar = calendars.get(propertyId);
+        if (calendar == null || calendar.loadedBefore(System.nanoTime() - maxStaleness.toNanos())) {
+            calendar = load(propertyId);
+        }
+        return !calendar.overlaps(startDate, endDate);
+    }
+
+    // Reads the property's ranges from the database first, so the answer includes bookings
+    // created, cancelled or rejected by other instances.
+    public boolean isAvailableAfterReload(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        return !load(propertyId).overlaps(startDate, endDate);
+    }
+
+    public void track(Booking booking) {
+        if (isActive(booking.getStatus())) {
+            calendarFor(booking.getPropertyId()).put(booking.getId(), booking.getStartDate(), booking.getEndDate());
+        } else {
+            PropertyCalendar calendar = calendars.get(booking.getPropertyId());
+            if (calendar != null) {
+                calendar.remove(booking.getId());
+            }
+        }
+    }
+
+    public void reload(Long propertyId) {
+        load(propertyId);
+    }
+
+    static boolean isActive(BookingStatus status) {
+        return status == BookingStatus.PENDING || status == BookingStatus.CONFIRMED;
+    }
+
+    private PropertyCalendar load(Long propertyId) {
+        PropertyCalendar calendar = new PropertyCalendar();
+        for (BookedRange range : bookingRepository.findActiveRangesByPropertyId(propertyId)) {
+            calendar.put(range.getBookingId(), range.getStartDate(), range.getEndDate());
+        }
+        calendars.put(propertyId, calendar);
+        return calendar;
+    }
+
+    private PropertyCalendar calendarFor(Long propertyId) {
+        return calendars.computeIfAbsent(propertyId, id -> new PropertyCalendar());
+    }
+
+    // Guarded by a ReadWriteLock rather than synchronized so that virtual threads waiting here
+    // do not pin their carrier thread.
+    private static class PropertyCalendar {
+        private final NavigableMap<LocalDate, Map<Long, LocalDate>> endsByStart = new TreeMap<>();
+        private final Map<Long, LocalDate> startByBooking = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final long loadedAtNanos = System.nanoTime();
+        private long longestStayDays;
+
+        boolean loadedBefore(long nanos) {
+            return loadedAtNanos - nanos < 0;
+        }
+
+        void put(Long bookingId, LocalDate startDate, LocalDate endDate) {
+            lock.writeLock().lock();
+            try {
+                removeEntry(bookingId);
+                endsByStart.computeIfAbsent(startDate, date -> new HashMap<>()).put(bookingId, endDate);
+                startByBooking.put(bookingId, startDate);
+                longestStayDays = Math.max(longestStayDays, ChronoUnit.DAYS.between(startDate, endDate));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long bookingId) {
+            lock.writeLock().lock();
+            try {
+                removeEntry(bookingId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Same inclusive overlap rule as BookingRepository.findConflictingBookings. Any range that
+        // overlaps [startDate, endDate] must start no earlier than startDate minus the longest stay.
+        boolean overlaps(LocalDate startDate, LocalDate endDate) {
+            lock.readLock().lock();
+            try {
+                LocalDate earliestStart = startDate.minusDays(longestStayDays);
+                if (earliestStart.isAfter(endDate)) {
+                    return false;
+                }
+                for (Map<Long, LocalDate> ends : endsByStart.subMap(earliestStart, true, endDate, true).values()) {
+                    for (LocalDate rangeEnd : ends.values()) {
+                        if (!rangeEnd.isBefore(startDate)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removeEntry(Long bookingId) {
+            LocalDate startDate = startByBooking.remove(bookingId);
+            if (startDate == null) {
+                return;
+            }
+            Map<Long, LocalDate> ends = endsByStart.get(startDate);
+            ends.remove(bookingId);
+            if (ends.isEmpty()) {
+                endsByStart.remove(startDate);
+            }
+        }
+    }
+}
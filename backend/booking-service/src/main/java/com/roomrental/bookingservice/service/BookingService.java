@@ -1,28 +1,67 @@
 package com.roomrental.bookingservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomrental.bookingservice.dto.AvailabilityCalendar;
+import com.roomrental.bookingservice.dto.BookedRange;
 import com.roomrental.bookingservice.dto.BookingCreateRequest;
+import com.roomrental.bookingservice.dto.DateRange;
 import com.roomrental.bookingservice.model.Booking;
 import com.roomrental.bookingservice.model.BookingStatus;
 import com.roomrental.bookingservice.repository.BookingRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
 
+    private static final String NOT_AVAILABLE_MESSAGE = "Property is not available for the selected dates";
+    private static final int MAX_CALENDAR_DAYS = 731;
+    private static final int MAX_CALENDAR_PROPERTIES = 100;
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     @Autowired
     private BookingRepository bookingRepository;
 
-    public Booking createBooking(BookingCreateRequest request) {
-        List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(
-            request.getPropertyId(), request.getStartDate(), request.getEndDate());
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private PropertyLockStripes propertyLockStripes;
+
+    @Autowired
+    private AvailabilityEventPublisher availabilityEventPublisher;
+
+    @Autowired
+    private EntityManager entityManager;
 
-        if (!conflictingBookings.isEmpty()) {
-            throw new RuntimeException("Property is not available for the selected dates");
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Booking createBooking(BookingCreateRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("End date must not be before start date");
         }
 
         Booking booking = new Booking();
@@ -34,15 +73,41 @@ public class BookingService {
         booking.setTotalAmount(request.getTotalAmount());
         booking.setSpecialRequests(request.getSpecialRequests());
 
-        return bookingRepository.save(booking);
+        Lock lock = propertyLockStripes.lockFor(request.getPropertyId());
+        lock.lock();
+        try {
+            if (!availabilityIndex.isAvailableAfterReload(request.getPropertyId(), request.getStartDate(), request.getEndDate())) {
+                throw new RuntimeException(NOT_AVAILABLE_MESSAGE);
+            }
+            return saveAndTrack(booking);
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Optional<Booking> getBookingById(Long id) {
         return bookingRepository.findById(id);
     }
 
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    public Optional<LocalDateTime> getBookingVersion(Long id) {
+        return bookingRepository.findUpdatedAtById(id);
+    }
+
+    public List<Booking> getBookingsAfter(Long afterId, int limit) {
+        return bookingRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBookings(OutputStream out) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamAll()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(booking));
+                out.write('\n');
+                entityManager.detach(booking);
+            }
+        }
     }
 
     public List<Booking> getBookingsByTenant(Long tenantId) {
@@ -57,23 +122,74 @@ public class BookingService {
         return bookingRepository.findByPropertyId(propertyId);
     }
 
-    public List<Booking> getBookingsByStatus(BookingStatus status) {
-        return bookingRepository.findByStatus(status);
+    public List<Booking> getBookingsByStatusAfter(BookingStatus status, Long afterId, int limit) {
+        return bookingRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, PageRequest.of(0, limit));
     }
 
     public Booking updateBookingStatus(Long id, BookingStatus status) {
-        Optional<Booking> existingBooking = bookingRepository.findById(id);
-        if (existingBooking.isPresent()) {
-            Booking booking = existingBooking.get();
+        Optional<Long> propertyId = bookingRepository.findById(id).map(Booking::getPropertyId);
+        if (propertyId.isEmpty()) {
+            return null;
+        }
+
+        Lock lock = propertyLockStripes.lockFor(propertyId.get());
+        lock.lock();
+        try {
+            // Re-read under the lock so the status compared below is the current one
+            Booking booking = bookingRepository.findById(id).orElse(null);
+            if (booking == null) {
+                return null;
+            }
+            boolean reactivating = !AvailabilityIndex.isActive(booking.getStatus()) && AvailabilityIndex.isActive(status);
+            if (reactivating && !availabilityIndex.isAvailableAfterReload(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate())) {
+                throw new RuntimeException(NOT_AVAILABLE_MESSAGE);
+            }
             booking.setStatus(status);
-            return bookingRepository.save(booking);
+            return saveAndTrack(booking);
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
     public boolean isPropertyAvailable(Long propertyId, LocalDate startDate, LocalDate endDate) {
-        List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(propertyId, startDate, endDate);
-        return conflictingBookings.isEmpty();
+        return availabilityIndex.isAvailable(propertyId, startDate, endDate);
+    }
+
+    public List<AvailabilityCalendar> getAvailabilityCalendars(List<Long> propertyIds, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End of the calendar window must not be before its start");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new RuntimeException("Calendar window cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        if (propertyIds.size() > MAX_CALENDAR_PROPERTIES) {
+            throw new RuntimeException("Cannot request more than " + MAX_CALENDAR_PROPERTIES + " properties at once");
+        }
+
+        Map<Long, AvailabilityCalendar> calendars = new LinkedHashMap<>();
+        for (Long propertyId : new LinkedHashSet<>(propertyIds)) {
+            calendars.put(propertyId, new AvailabilityCalendar(propertyId, from, to));
+        }
+        if (calendars.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Ranges arrive ordered by property and start date, so overlapping or back-to-back
+        // bookings are merged into a single run as they are read.
+        for (BookedRange range : bookingRepository.findActiveRangesInWindow(calendars.keySet(), from, to)) {
+            List<DateRange> runs = calendars.get(range.getPropertyId()).getBookedRanges();
+            LocalDate start = range.getStartDate().isBefore(from) ? from : range.getStartDate();
+            LocalDate end = range.getEndDate().isAfter(to) ? to : range.getEndDate();
+            DateRange last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && !start.isAfter(last.getEndDate().plusDays(1))) {
+                if (end.isAfter(last.getEndDate())) {
+                    last.setEndDate(end);
+                }
+            } else {
+                runs.add(new DateRange(start, end));
+            }
+        }
+        return new ArrayList<>(calendars.values());
     }
 
     public List<Booking> getActiveBookingsForProperty(Long propertyId) {
@@ -91,4 +207,29 @@ public class BookingService {
     public Booking rejectBooking(Long id) {
         return updateBookingStatus(id, BookingStatus.REJECTED);
     }
-}
\ No newline at end of file
+
+    // Must be called while holding the property's stripe lock. The bookings_no_overlap constraint
+    // catches conflicts another instance committed after this one reloaded the property's ranges.
+    private Booking saveAndTrack(Booking booking) {
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            availabilityIndex.reload(booking.getPropertyId());
+            throw new RuntimeException(NOT_AVAILABLE_MESSAGE);
+        }
+        availabilityIndex.track(savedBooking);
+        availabilityEventPublisher.publish(savedBooking);
+        return savedBooking;
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                && String.valueOf(sqlException.getMessage()).contains(OVERLAP_CONSTRAINT);
+    }
+}
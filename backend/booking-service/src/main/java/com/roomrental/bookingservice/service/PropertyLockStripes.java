@@ -0,0 +1,33 @@
+package com.roomrental.bookingservice.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that serializes booking writes per property. Properties that hash to
+ * different stripes never wait on each other.
+ */
+@Component
+public class PropertyLockStripes {
+
+    @Value("${app.booking.lockStripes:64}")
+    private int stripeCount;
+
+    private Lock[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(Long propertyId) {
+        return stripes[Math.floorMod(Long.hashCode(propertyId), stripes.length)];
+    }
+}
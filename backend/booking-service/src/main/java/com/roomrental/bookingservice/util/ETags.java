@@ -0,0 +1,51 @@
+package com.roomrental.bookingservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+public final class ETags {
+
+    private ETags() {}
+
+    /** Strong ETag for a single row, from its id and last modification time. */
+    public static String forEntity(Long id, LocalDateTime updatedAt) {
+        return strong(id + "-" + timestamp(updatedAt));
+    }
+
+    /** Strong ETag for a listing, from a version string that changes whenever any row in it does. */
+    public static String strong(String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Version of a listing taken from the rows it returns: a digest of each row's id and
+     * modification time, in order. It changes when a row in the listing is edited, added or removed.
+     */
+    public static <T> String version(List<T> rows, Function<T, Long> id, Function<T, LocalDateTime> updatedAt) {
+        StringBuilder entries = new StringBuilder();
+        for (T row : rows) {
+            entries.append(id.apply(row)).append('-').append(timestamp(updatedAt.apply(row))).append(',');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(entries.toString().getBytes(StandardCharsets.UTF_8));
+            return rows.size() + "-" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Microseconds in hex, the precision the database stores the timestamp at.
+    public static String timestamp(LocalDateTime time) {
+        if (time == null) {
+            return "0";
+        }
+        long micros = time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+        return Long.toHexString(micros);
+    }
+}
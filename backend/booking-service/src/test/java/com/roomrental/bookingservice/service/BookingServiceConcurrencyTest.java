@@ -0,0 +1,169 @@
+package com.roomrental.bookingservice.service;
+
+import com.roomrental.bookingservice.dto.BookedRange;
+import com.roomrental.bookingservice.dto.BookingCreateRequest;
+import com.roomrental.bookingservice.model.Booking;
+import com.roomrental.bookingservice.model.BookingStatus;
+import com.roomrental.bookingservice.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers one property from many threads. The in-memory repository below does not enforce the
+ * bookings_no_overlap constraint, so only the stripe lock and the availability check stand
+ * between concurrent requests and a double booking.
+ */
+class BookingServiceConcurrencyTest {
+
+    private static final long PROPERTY_ID = 42L;
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private final Map<Long, Booking> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository repository = mock(BookingRepository.class);
+        when(repository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            if (booking.getId() == null) {
+                booking.setId(ids.incrementAndGet());
+            }
+            Thread.yield();
+            table.put(booking.getId(), copy(booking));
+            return booking;
+        });
+        when(repository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(table.get((Long) invocation.getArgument(0))).map(BookingServiceConcurrencyTest::copy));
+        when(repository.findActiveRangesByPropertyId(anyLong())).thenAnswer(invocation -> {
+            Long propertyId = invocation.getArgument(0);
+            List<BookedRange> ranges = new ArrayList<>();
+            for (Booking booking : table.values()) {
+                if (booking.getPropertyId().equals(propertyId) && AvailabilityIndex.isActive(booking.getStatus())) {
+                    ranges.add(new BookedRange(booking.getId(), propertyId, booking.getStartDate(), booking.getEndDate()));
+                }
+            }
+            Thread.yield();
+            return ranges;
+        });
+        when(repository.findAllActiveRanges()).thenReturn(List.of());
+
+        AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+        ReflectionTestUtils.setField(availabilityIndex, "bookingRepository", repository);
+        ReflectionTestUtils.setField(availabilityIndex, "maxStaleness", Duration.ofSeconds(5));
+        availabilityIndex.afterSingletonsInstantiated();
+
+        PropertyLockStripes lockStripes = new PropertyLockStripes();
+        ReflectionTestUtils.setField(lockStripes, "stripeCount", 4);
+        lockStripes.init();
+
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", repository);
+        ReflectionTestUtils.setField(bookingService, "availabilityIndex", availabilityIndex);
+        ReflectionTestUtils.setField(bookingService, "propertyLockStripes", lockStripes);
+        ReflectionTestUtils.setField(bookingService, "availabilityEventPublisher", mock(AvailabilityEventPublisher.class));
+    }
+
+    @Test
+    void admitsExactlyOneBookingPerOverlappingRange() throws Exception {
+        int threads = 16;
+        int ranges = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t % 3;
+            results.add(executor.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int r = 0; r < ranges; r++) {
+                    // Every thread's range r overlaps every other thread's range r and no other range
+                    LocalDate startDate = BASE.plusDays(r * 10L + offset);
+                    try {
+                        bookingService.createBooking(request(startDate, startDate.plusDays(4)));
+                        admitted++;
+                    } catch (RuntimeException e) {
+                        assertEquals("Property is not available for the selected dates", e.getMessage());
+                    }
+                }
+                return admitted;
+            }));
+        }
+        start.countDown();
+        int admitted = 0;
+        for (Future<Integer> result : results) {
+            admitted += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(ranges, admitted);
+        assertEquals(ranges, table.size());
+        for (int r = 0; r < ranges; r++) {
+            LocalDate windowStart = BASE.plusDays(r * 10L);
+            long inWindow = table.values().stream()
+                    .filter(b -> !b.getStartDate().isBefore(windowStart) && b.getStartDate().isBefore(windowStart.plusDays(10)))
+                    .count();
+            assertEquals(1, inWindow, "bookings admitted for range " + r);
+        }
+    }
+
+    @Test
+    void seesCancellationsWrittenByAnotherInstance() {
+        Booking booking = bookingService.createBooking(request(BASE, BASE.plusDays(3)));
+        assertThrows(RuntimeException.class, () -> bookingService.createBooking(request(BASE, BASE.plusDays(3))));
+
+        // Another instance cancels the booking directly in the shared table
+        table.get(booking.getId()).setStatus(BookingStatus.CANCELLED);
+
+        assertNotNull(bookingService.createBooking(request(BASE, BASE.plusDays(3))));
+    }
+
+    private static BookingCreateRequest request(LocalDate startDate, LocalDate endDate) {
+        BookingCreateRequest request = new BookingCreateRequest();
+        request.setPropertyId(PROPERTY_ID);
+        request.setTenantId(7L);
+        request.setLandlordId(3L);
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+        request.setTotalAmount(BigDecimal.TEN);
+        return request;
+    }
+
+    private static Booking copy(Booking source) {
+        Booking booking = new Booking();
+        booking.setId(source.getId());
+        booking.setPropertyId(source.getPropertyId());
+        booking.setTenantId(source.getTenantId());
+        booking.setLandlordId(source.getLandlordId());
+        booking.setStartDate(source.getStartDate());
+        booking.setEndDate(source.getEndDate());
+        booking.setTotalAmount(source.getTotalAmount());
+        booking.setStatus(source.getStatus());
+        return booking;
+    }
+}
@@ -0,0 +1,193 @@
+package com.roomrental.propertyservice.config;
+
+import com.roomrental.propertyservice.model.Amenity;
+import com.roomrental.propertyservice.util.LocationNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+public class DatabaseInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseInitializer.class);
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    private static final String AMENITY_TABLE = "property_amenities";
+    private static final String LEGACY_AMENITY_TABLE = "property_amenities_legacy";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.amenities.dropLegacyTable:false}")
+    private boolean dropLegacyAmenityTable;
+
+    // Runs once the schema exists but before the web server accepts requests, so no request can
+    // see (and the property cache keep) a row still missing its location keys or amenity mask.
+    @Override
+    public void afterSingletonsInstantiated() {
+        syncIdSequence("properties", "properties_seq");
+        createSearchIndexes();
+        migrateAmenityTable();
+        backfillLocationKeys();
+    }
+
+    private void createSearchIndexes() {
+        // City prefixes are matched as a "C" collation range rather than LIKE, which a prepared
+        // statement's generic plan cannot use an index for. JPA index definitions cannot
+        // declare collations or GIN indexes.
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_properties_city_key_c " +
+                    "ON properties ((city_key COLLATE \"C\"))");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_properties_city_key");
+        } catch (DataAccessException e) {
+            logger.warn("Could not create idx_properties_city_key_c: {}", e.getMessage());
+        }
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_properties_city_tokens " +
+                    "ON properties USING gin (city_tokens)");
+        } catch (DataAccessException e) {
+            logger.warn("Could not create idx_properties_city_tokens: {}", e.getMessage());
+        }
+        // Geo searches test point(longitude, latitude) against boxes, which a GiST index answers
+        // in both dimensions; a B-tree on (latitude, longitude) only narrowed by latitude.
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_properties_location " +
+                    "ON properties USING gist (point(longitude, latitude))");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_properties_lat_lng");
+        } catch (DataAccessException e) {
+            logger.warn("Could not create idx_properties_location: {}", e.getMessage());
+        }
+    }
+
+    // Rows written before the keys existed get them here, a batch of ids at a time so the whole
+    // table is never held in memory. Rows without a city get an empty token array and are not
+    // selected again.
+    private void backfillLocationKeys() {
+        long lastId = 0;
+        int backfilled = 0;
+        while (true) {
+            List<Object[]> updates = new ArrayList<>();
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, city, state, country FROM properties WHERE city_tokens IS NULL AND id > ? " +
+                    "ORDER BY id LIMIT ?", lastId, BACKFILL_BATCH_SIZE);
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                updates.add(new Object[]{
+                        LocationNormalizer.normalize((String) row.get("city")),
+                        LocationNormalizer.normalize((String) row.get("state")),
+                        LocationNormalizer.normalize((String) row.get("country")),
+                        LocationNormalizer.normalize((String) row.get("city")),
+                        lastId});
+            }
+            if (updates.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate("UPDATE properties SET city_key = ?, state_key = ?, country_key = ?, " +
+                    "city_tokens = COALESCE(string_to_array(?, ' '), '{}') WHERE id = ?", updates);
+            backfilled += updates.size();
+        }
+        if (backfilled > 0) {
+            logger.info("Backfilled location keys for {} properties", backfilled);
+        }
+    }
+
+    // Amenities used to live one row per amenity in property_amenities. Fold them into the
+    // amenity_mask column once and rename the table, so it is kept for checking but never
+    // migrated again. Instances starting together queue on the table lock, and all but the
+    // first find the table already renamed.
+    private void migrateAmenityTable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!tableExists(AMENITY_TABLE)) {
+                return;
+            }
+            jdbcTemplate.execute("LOCK TABLE " + AMENITY_TABLE + " IN ACCESS EXCLUSIVE MODE");
+            if (!tableExists(AMENITY_TABLE)) {
+                return;
+            }
+            Map<Long, Long> masks = readAmenityMasks(AMENITY_TABLE);
+            List<Object[]> updates = new ArrayList<>();
+            masks.forEach((propertyId, mask) -> updates.add(new Object[]{mask, propertyId}));
+            jdbcTemplate.batchUpdate("UPDATE properties SET amenity_mask = ? WHERE id = ? AND amenity_mask = 0", updates);
+            jdbcTemplate.execute("ALTER TABLE " + AMENITY_TABLE + " RENAME TO " + LEGACY_AMENITY_TABLE);
+            logger.info("Migrated amenities of {} properties to amenity_mask, kept the rows in {}",
+                    masks.size(), LEGACY_AMENITY_TABLE);
+        });
+        if (dropLegacyAmenityTable) {
+            dropLegacyAmenityTable();
+        }
+    }
+
+    // Opt-in, and only once every amenity in the legacy table is set in its property's mask.
+    private void dropLegacyAmenityTable() {
+        if (!tableExists(LEGACY_AMENITY_TABLE)) {
+            return;
+        }
+        Map<Long, Long> legacyMasks = readAmenityMasks(LEGACY_AMENITY_TABLE);
+        Map<Long, Long> masks = new HashMap<>();
+        jdbcTemplate.query("SELECT id, amenity_mask FROM properties", (RowCallbackHandler) rs ->
+                masks.put(rs.getLong("id"), rs.getLong("amenity_mask")));
+        long mismatched = legacyMasks.entrySet().stream()
+                .filter(legacy -> masks.containsKey(legacy.getKey()))
+                .filter(legacy -> (masks.get(legacy.getKey()) & legacy.getValue()) != legacy.getValue())
+                .count();
+        if (mismatched > 0) {
+            logger.warn("Keeping {}: {} properties lack amenities listed there", LEGACY_AMENITY_TABLE, mismatched);
+            return;
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + LEGACY_AMENITY_TABLE);
+        logger.info("Dropped {} after checking it against amenity_mask", LEGACY_AMENITY_TABLE);
+    }
+
+    // Values that are no longer Amenity constants are skipped and logged rather than failing startup.
+    private Map<Long, Long> readAmenityMasks(String table) {
+        Map<Long, Long> masks = new HashMap<>();
+        Map<String, Integer> unknown = new TreeMap<>();
+        jdbcTemplate.query("SELECT property_id, amenity FROM " + table, (RowCallbackHandler) rs -> {
+            String name = rs.getString("amenity");
+            Amenity amenity = parseAmenity(name);
+            if (amenity == null) {
+                unknown.merge(String.valueOf(name), 1, Integer::sum);
+            } else {
+                masks.merge(rs.getLong("property_id"), amenity.bit(), (a, b) -> a | b);
+            }
+        });
+        if (!unknown.isEmpty()) {
+            logger.warn("Skipped unknown amenities in {} (value=rows): {}", table, unknown);
+        }
+        return masks;
+    }
+
+    private static Amenity parseAmenity(String name) {
+        try {
+            return name == null ? null : Amenity.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    // Ids come from pooled sequences (allocationSize 50) since the tables stopped using identity
+    // columns. Move the sequence past existing rows so no id is handed out twice.
+    private void syncIdSequence(String table, String sequence) {
+        jdbcTemplate.execute("SELECT setval('" + sequence + "', GREATEST(MAX(id), " +
+                "(SELECT last_value FROM " + sequence + "))) FROM " + table + " HAVING MAX(id) IS NOT NULL");
+    }
+}
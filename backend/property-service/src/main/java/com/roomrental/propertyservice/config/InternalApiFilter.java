@@ -0,0 +1,43 @@
+package com.roomrental.propertyservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Restricts the service-to-service {@code /internal/**} endpoints to callers that present the
+ * shared {@code app.internalToken}. An empty token rejects every internal call.
+ */
+@Component
+public class InternalApiFilter extends OncePerRequestFilter {
+
+    public static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+    @Value("${app.internalToken:}")
+    private String internalToken;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/internal/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String presented = request.getHeader(INTERNAL_TOKEN_HEADER);
+        if (internalToken.isEmpty() || presented == null || !MessageDigest.isEqual(
+                internalToken.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,26 @@
+package com.roomrental.propertyservice.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the city search functions for queries:
+ * {@code contains_words(tokens, key)} is true when the text[] column holds every
+ * space-separated word of the key, rendered as {@code @>} for the GIN index on the column;
+ * {@code key_in_range(key, from, to)} compares in "C" collation to match the B-tree index on
+ * {@code city_key COLLATE "C"}.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType =
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry().registerPattern(
+                "contains_words", "(?1 @> string_to_array(?2, ' '))", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(
+                "key_in_range", "(?1 collate \"C\" >= ?2 and ?1 collate \"C\" < ?3)", booleanType);
+    }
+}
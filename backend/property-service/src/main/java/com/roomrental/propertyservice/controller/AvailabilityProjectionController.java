@@ -0,0 +1,30 @@
+package com.roomrental.propertyservice.controller;
+
+import com.roomrental.propertyservice.dto.AvailabilityEvent;
+import com.roomrental.propertyservice.service.AvailabilityProjectionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/availability")
+public class AvailabilityProjectionController {
+
+    @Autowired
+    private AvailabilityProjectionService availabilityProjectionService;
+
+    @PostMapping("/events")
+    public ResponseEntity<Void> applyEvent(@Valid @RequestBody AvailabilityEvent event) {
+        availabilityProjectionService.apply(event);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PutMapping("/snapshot")
+    public ResponseEntity<Void> replaceSnapshot(@RequestBody List<AvailabilityEvent> snapshot) {
+        availabilityProjectionService.replaceAll(snapshot);
+        return ResponseEntity.noContent().build();
+    }
+}
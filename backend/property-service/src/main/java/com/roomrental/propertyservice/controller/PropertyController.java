@@ -1,19 +1,31 @@
 package com.roomrental.propertyservice.controller;
 
+import com.roomrental.propertyservice.dto.PropertyBulkCreateRequest;
 import com.roomrental.propertyservice.dto.PropertyCreateRequest;
+import com.roomrental.propertyservice.model.Amenity;
 import com.roomrental.propertyservice.model.Property;
 import com.roomrental.propertyservice.model.PropertyType;
 import com.roomrental.propertyservice.service.PropertyService;
+import com.roomrental.propertyservice.util.ETags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,57 +33,162 @@ import java.util.Optional;
 @RequestMapping("/api/properties")
 public class PropertyController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_LIMIT = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private PropertyService propertyService;
 
+    @Value("${app.sharedCache.searchMaxAge:30s}")
+    private Duration searchSharedMaxAge;
+
+    @Value("${app.sharedCache.detailsMaxAge:60s}")
+    private Duration detailsSharedMaxAge;
+
     @PostMapping
     public ResponseEntity<Property> createProperty(@Valid @RequestBody PropertyCreateRequest request) {
         Property property = propertyService.createProperty(request);
         return ResponseEntity.ok(property);
     }
 
-    @GetMapping
-    public ResponseEntity<List<Property>> getAllProperties() {
-        List<Property> properties = propertyService.getAllProperties();
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Property>> createProperties(@Valid @RequestBody PropertyBulkCreateRequest request) {
+        List<Property> properties = propertyService.createProperties(request.getProperties());
         return ResponseEntity.ok(properties);
     }
 
+    @GetMapping
+    public ResponseEntity<List<Property>> getAllProperties(@RequestParam(defaultValue = "0") Long afterId,
+                                                           @RequestParam(defaultValue = "100") int limit,
+                                                           WebRequest webRequest) {
+        int pageSize = clampLimit(limit);
+        List<Property> properties = propertyService.getPropertiesAfter(afterId, pageSize);
+        return keysetPage(properties, pageSize, webRequest);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportProperties() {
+        StreamingResponseBody body = out -> propertyService.exportProperties(out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    // The ETag comes from the cached property itself, so it always matches the body served and
+    // a matching If-None-Match costs no database call once the property is cached.
     @GetMapping("/{id}")
-    public ResponseEntity<Property> getPropertyById(@PathVariable Long id) {
+    public ResponseEntity<Property> getPropertyById(@PathVariable Long id, WebRequest webRequest) {
         Optional<Property> property = propertyService.getPropertyById(id);
-        return property.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        if (property.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        CacheControl cacheControl = sharedCacheControl(detailsSharedMaxAge);
+        if (webRequest.checkNotModified(ETags.forEntity(id, property.get().getUpdatedAt()))) {
+            return notModified(cacheControl);
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(property.get());
     }
 
     @GetMapping("/landlord/{landlordId}")
-    public ResponseEntity<List<Property>> getPropertiesByLandlord(@PathVariable Long landlordId) {
+    public ResponseEntity<List<Property>> getPropertiesByLandlord(@PathVariable Long landlordId, WebRequest webRequest) {
         List<Property> properties = propertyService.getPropertiesByLandlord(landlordId);
-        return ResponseEntity.ok(properties);
+        if (webRequest.checkNotModified(etag(properties))) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(properties);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Property>> getAvailableProperties() {
-        List<Property> properties = propertyService.getAvailableProperties();
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<List<Property>> getAvailableProperties(@RequestParam(defaultValue = "0") Long afterId,
+                                                                 @RequestParam(defaultValue = "100") int limit,
+                                                                 WebRequest webRequest) {
+        int pageSize = clampLimit(limit);
+        List<Property> properties = propertyService.getAvailablePropertiesAfter(afterId, pageSize);
+        return keysetPage(properties, pageSize, webRequest);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Page<Property>> searchProperties(
             @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String country,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Integer bedrooms,
             @RequestParam(required = false) PropertyType propertyType,
+            @RequestParam(required = false) List<Amenity> amenities,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest webRequest) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Property> properties = propertyService.searchProperties(city, minPrice, maxPrice, bedrooms, propertyType, pageable);
+        Page<Property> properties = propertyService.searchProperties(city, state, country, minPrice, maxPrice, bedrooms, propertyType,
+                amenities, startDate, endDate, pageable);
+        // The page body also carries the total count, which can change without the rows on this page.
+        String version = properties.getTotalElements() + "-"
+                + ETags.version(properties.getContent(), Property::getId, Property::getUpdatedAt);
+        CacheControl cacheControl = sharedCacheControl(searchSharedMaxAge);
+        if (webRequest.checkNotModified(ETags.strong(version))) {
+            return notModified(cacheControl);
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(properties);
+    }
+
+    // Same filters as /search, served from R2DBC without holding a request thread. Results are
+    // written one line per property as the database returns them, in id order; page with afterId.
+    @GetMapping(value = "/search/stream", produces = NDJSON)
+    public Flux<Property> streamSearch(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer bedrooms,
+            @RequestParam(required = false) PropertyType propertyType,
+            @RequestParam(required = false) List<Amenity> amenities,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return propertyService.streamSearch(city, state, country, minPrice, maxPrice, bedrooms, propertyType,
+                amenities, startDate, endDate, afterId, clampLimit(limit));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<Page<Property>> findNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (!isLatitude(lat) || !isLongitude(lng) || radiusKm <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Page<Property> properties = propertyService.findNearby(lat, lng, radiusKm, PageRequest.of(page, clampLimit(size)));
+        return ResponseEntity.ok(properties);
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<Page<Property>> findWithinBoundingBox(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+
+        if (!isLatitude(minLat) || !isLatitude(maxLat) || minLat > maxLat || !isLongitude(minLng) || !isLongitude(maxLng)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Page<Property> properties = propertyService.findWithinBoundingBox(minLat, minLng, maxLat, maxLng,
+                PageRequest.of(page, clampLimit(size)));
         return ResponseEntity.ok(properties);
     }
 
@@ -103,4 +220,48 @@ public class PropertyController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    private static boolean isLatitude(double value) {
+        return value >= -90 && value <= 90;
+    }
+
+    private static boolean isLongitude(double value) {
+        return value >= -180 && value <= 180;
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // checkNotModified has already set the ETag header; clients must revalidate before reusing a body.
+    private static <T> ResponseEntity<T> notModified() {
+        return notModified(CacheControl.noCache());
+    }
+
+    private static <T> ResponseEntity<T> notModified(CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+
+    // Anonymous reads the gateway caches: browsers revalidate every time, while the gateway may
+    // reuse the body for sharedMaxAge, matching its route TTL, before revalidating.
+    private static CacheControl sharedCacheControl(Duration sharedMaxAge) {
+        return CacheControl.maxAge(Duration.ZERO).sMaxAge(sharedMaxAge);
+    }
+
+    // Taken from the rows being returned, so no extra query is needed to answer If-None-Match.
+    private static String etag(List<Property> properties) {
+        return ETags.strong(ETags.version(properties, Property::getId, Property::getUpdatedAt));
+    }
+
+    // A full page means there may be more rows; the client passes the cursor back as afterId.
+    private static ResponseEntity<List<Property>> keysetPage(List<Property> properties, int limit, WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag(properties))) {
+            return notModified();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (properties.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(properties.get(properties.size() - 1).getId()));
+        }
+        return response.body(properties);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.roomrental.propertyservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class PropertyBulkCreateRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@Valid PropertyCreateRequest> properties;
+
+    public PropertyBulkCreateRequest() {}
+
+    public List<PropertyCreateRequest> getProperties() { return properties; }
+    public void setProperties(List<PropertyCreateRequest> properties) { this.properties = properties; }
+}
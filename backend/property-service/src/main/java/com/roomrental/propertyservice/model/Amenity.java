@@ -1,5 +1,10 @@
 package com.roomrental.propertyservice.model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Properties store their amenities as a bitmask of ordinals, so new values must be appended.
 public enum Amenity {
     WIFI,
     PARKING,
@@ -19,5 +24,32 @@ public enum Amenity {
     MICROWAVE,
     REFRIGERATOR,
     TV,
-    WASHER_DRYER
-}
\ No newline at end of file
+    WASHER_DRYER;
+
+    private static final Amenity[] VALUES = values();
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long toMask(Collection<Amenity> amenities) {
+        long mask = 0;
+        if (amenities != null) {
+            for (Amenity amenity : amenities) {
+                mask |= amenity.bit();
+            }
+        }
+        return mask;
+    }
+
+    public static Set<Amenity> fromMask(long mask) {
+        EnumSet<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            int ordinal = Long.numberOfTrailingZeros(remaining);
+            if (ordinal < VALUES.length) {
+                amenities.add(VALUES[ordinal]);
+            }
+        }
+        return amenities;
+    }
+}
@@ -0,0 +1,49 @@
+package com.roomrental.propertyservice.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "booked_periods", indexes = {
+        @Index(name = "idx_booked_periods_property_dates", columnList = "property_id, start_date, end_date")
+})
+public class BookedPeriod {
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @NotNull
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @NotNull
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @NotNull
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    public BookedPeriod() {}
+
+    public BookedPeriod(Long bookingId, Long propertyId, LocalDate startDate, LocalDate endDate) {
+        this.bookingId = bookingId;
+        this.propertyId = propertyId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getPropertyId() { return propertyId; }
+    public void setPropertyId(Long propertyId) { this.propertyId = propertyId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
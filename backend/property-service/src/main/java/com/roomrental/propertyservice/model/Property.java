@@ -1,20 +1,33 @@
 package com.roomrental.propertyservice.model;
 
+import com.roomrental.propertyservice.util.LocationNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_state_key", columnList = "state_key"),
+        @Index(name = "idx_properties_country_key", columnList = "country_key"),
+        @Index(name = "idx_properties_price_per_month", columnList = "price_per_month"),
+        @Index(name = "idx_properties_bedrooms", columnList = "bedrooms"),
+        @Index(name = "idx_properties_property_type", columnList = "property_type"),
+        @Index(name = "idx_properties_available", columnList = "available")
+})
 public class Property {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+    @SequenceGenerator(name = "property_seq", sequenceName = "properties_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -36,6 +49,18 @@ public class Property {
     @Column(name = "state")
     private String state;
 
+    @Column(name = "city_key")
+    private String cityKey;
+
+    @Column(name = "city_tokens", columnDefinition = "text[]")
+    private String[] cityTokens;
+
+    @Column(name = "state_key")
+    private String stateKey;
+
+    @Column(name = "country_key")
+    private String countryKey;
+
     @NotBlank
     @Column(name = "zip_code")
     private String zipCode;
@@ -79,13 +104,11 @@ public class Property {
     @Column(name = "longitude")
     private Double longitude;
 
-    @ElementCollection
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "property_amenities", joinColumns = @JoinColumn(name = "property_id"))
-    @Column(name = "amenity")
-    private List<Amenity> amenities = new ArrayList<>();
+    @Column(name = "amenity_mask", columnDefinition = "bigint default 0 not null")
+    private long amenityMask;
 
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "property_images", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "image_url")
     private List<String> imageUrls = new ArrayList<>();
@@ -102,11 +125,20 @@ public class Property {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        refreshLocationKeys();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        refreshLocationKeys();
+    }
+
+    public void refreshLocationKeys() {
+        cityKey = LocationNormalizer.normalize(city);
+        cityTokens = LocationNormalizer.tokens(cityKey);
+        stateKey = LocationNormalizer.normalize(state);
+        countryKey = LocationNormalizer.normalize(country);
     }
 
     public Long getId() { return id; }
@@ -160,8 +192,9 @@ public class Property {
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
 
-    public List<Amenity> getAmenities() { return amenities; }
-    public void setAmenities(List<Amenity> amenities) { this.amenities = amenities; }
+    // A view of amenityMask; change amenities through setAmenities.
+    public Set<Amenity> getAmenities() { return Collections.unmodifiableSet(Amenity.fromMask(amenityMask)); }
+    public void setAmenities(Collection<Amenity> amenities) { this.amenityMask = Amenity.toMask(amenities); }
 
     public List<String> getImageUrls() { return imageUrls; }
     public void setImageUrls(List<String> imageUrls) { this.imageUrls = imageUrls; }
@@ -0,0 +1,9 @@
+package com.roomrental.propertyservice.repository;
+
+import com.roomrental.propertyservice.model.BookedPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookedPeriodRepository extends JpaRepository<BookedPeriod, Long> {
+}
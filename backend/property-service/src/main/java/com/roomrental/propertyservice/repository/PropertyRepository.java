@@ -2,39 +2,74 @@ package com.roomrental.propertyservice.repository;
 
 import com.roomrental.propertyservice.model.Property;
 import com.roomrental.propertyservice.model.PropertyType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
+
+    String DISTANCE_KM = "(6371.0 * 2 * ASIN(SQRT(" +
+            "POWER(SIN(RADIANS(p.latitude - :lat) / 2), 2) + " +
+            "COS(RADIANS(:lat)) * COS(RADIANS(p.latitude)) * POWER(SIN(RADIANS(p.longitude - :lng) / 2), 2))))";
+
+    // Two boxes so a band crossing the antimeridian (minLng > maxLng) is split at +/-180; otherwise
+    // both are the same box. Each arm can be answered by the GiST index on point(longitude, latitude).
+    String IN_BOUNDING_BOX = "p.available = true AND (" +
+            "point(p.longitude, p.latitude) <@ box(point(:minLng, :minLat), " +
+            "point(CASE WHEN :minLng <= :maxLng THEN :maxLng ELSE 180 END, :maxLat)) OR " +
+            "point(p.longitude, p.latitude) <@ box(point(CASE WHEN :minLng <= :maxLng THEN :minLng ELSE -180 END, :minLat), " +
+            "point(:maxLng, :maxLat)))";
 
     List<Property> findByLandlordId(Long landlordId);
 
     List<Property> findByAvailable(Boolean available);
 
+    List<Property> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<Property> findByAvailableAndIdGreaterThanOrderByIdAsc(Boolean available, Long afterId, Pageable pageable);
+
+    @Query("SELECT p FROM Property p ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Property> streamAll();
+
     List<Property> findByCityIgnoreCase(String city);
 
     List<Property> findByPropertyType(PropertyType propertyType);
 
-    @Query("SELECT p FROM Property p WHERE " +
-           "(:city IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-           "(:minPrice IS NULL OR p.pricePerMonth >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.pricePerMonth <= :maxPrice) AND " +
-           "(:bedrooms IS NULL OR p.bedrooms >= :bedrooms) AND " +
-           "(:propertyType IS NULL OR p.propertyType = :propertyType) AND " +
-           "p.available = true")
-    Page<Property> findPropertiesWithFilters(
-            @Param("city") String city,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("bedrooms") Integer bedrooms,
-            @Param("propertyType") PropertyType propertyType,
+    @Query(value = "SELECT p.* FROM properties p WHERE " + IN_BOUNDING_BOX + " AND " + DISTANCE_KM + " <= :radiusKm " +
+                   "ORDER BY " + DISTANCE_KM + ", p.id",
+           countQuery = "SELECT COUNT(*) FROM properties p WHERE " + IN_BOUNDING_BOX + " AND " + DISTANCE_KM + " <= :radiusKm",
+           nativeQuery = true)
+    Page<Property> findWithinRadius(
+            @Param("lat") double lat,
+            @Param("lng") double lng,
+            @Param("radiusKm") double radiusKm,
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLng") double minLng,
+            @Param("maxLng") double maxLng,
+            Pageable pageable);
+
+    @Query(value = "SELECT p.* FROM properties p WHERE " + IN_BOUNDING_BOX + " ORDER BY " + DISTANCE_KM + ", p.id",
+           countQuery = "SELECT COUNT(*) FROM properties p WHERE " + IN_BOUNDING_BOX,
+           nativeQuery = true)
+    Page<Property> findWithinBoundingBox(
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLng") double minLng,
+            @Param("maxLng") double maxLng,
+            @Param("lat") double centerLat,
+            @Param("lng") double centerLng,
             Pageable pageable);
 }
\ No newline at end of file
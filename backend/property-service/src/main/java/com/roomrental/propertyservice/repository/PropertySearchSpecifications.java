@@ -0,0 +1,77 @@
+package com.roomrental.propertyservice.repository;
+
+import com.roomrental.propertyservice.model.BookedPeriod;
+import com.roomrental.propertyservice.model.Property;
+import com.roomrental.propertyservice.model.PropertyType;
+import com.roomrental.propertyservice.util.LocationNormalizer;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Property search filters for {@link PropertyRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ * Only the filters that are present become predicates, so a prepared statement's generic plan
+ * never hides an index behind an {@code :param IS NULL OR ...} branch.
+ */
+public final class PropertySearchSpecifications {
+
+    private PropertySearchSpecifications() {}
+
+    public static Specification<Property> search(String cityKey, String stateKey, String countryKey,
+                                                 BigDecimal minPrice, BigDecimal maxPrice, Integer bedrooms,
+                                                 PropertyType propertyType, long amenityMask,
+                                                 LocalDate startDate, LocalDate endDate) {
+        return (root, query, criteriaBuilder) -> {
+            // value() binds its argument as a parameter where literal() would inline it in the SQL
+            HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) criteriaBuilder;
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("available")));
+            if (cityKey != null) {
+                // Prefix of the whole name ("san j") or every word somewhere in it ("jose")
+                predicates.add(cb.or(
+                        cb.isTrue(cb.function("key_in_range", Boolean.class, root.get("cityKey"),
+                                cb.value(cityKey), cb.value(LocationNormalizer.prefixEnd(cityKey)))),
+                        cb.isTrue(cb.function("contains_words", Boolean.class, root.get("cityTokens"), cb.value(cityKey)))));
+            }
+            if (stateKey != null) {
+                predicates.add(cb.equal(root.get("stateKey"), stateKey));
+            }
+            if (countryKey != null) {
+                predicates.add(cb.equal(root.get("countryKey"), countryKey));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("pricePerMonth"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("pricePerMonth"), maxPrice));
+            }
+            if (bedrooms != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bedrooms"), bedrooms));
+            }
+            if (propertyType != null) {
+                predicates.add(cb.equal(root.get("propertyType"), propertyType));
+            }
+            if (amenityMask != 0) {
+                predicates.add(cb.equal(
+                        cb.function("bitand", Long.class, root.get("amenityMask"), cb.value(amenityMask)), amenityMask));
+            }
+            if (startDate != null && endDate != null) {
+                Subquery<Integer> booked = query.subquery(Integer.class);
+                Root<BookedPeriod> period = booked.from(BookedPeriod.class);
+                booked.select(cb.literal(1)).where(
+                        cb.equal(period.get("propertyId"), root.get("id")),
+                        cb.lessThanOrEqualTo(period.get("startDate"), endDate),
+                        cb.greaterThanOrEqualTo(period.get("endDate"), startDate));
+                predicates.add(cb.not(cb.exists(booked)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,122 @@
+package com.roomrental.propertyservice.repository;
+
+import com.roomrental.propertyservice.model.Amenity;
+import com.roomrental.propertyservice.model.Property;
+import com.roomrental.propertyservice.model.PropertyType;
+import com.roomrental.propertyservice.util.LocationNormalizer;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link PropertySearchSpecifications#search} over R2DBC, with the
+ * same predicates. Only the filters that are present are added to the SQL, and rows are emitted
+ * as the driver reads them, in id order so callers can page with {@code afterId}.
+ */
+@Repository
+public class ReactivePropertySearchRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Property> search(String cityKey, String stateKey, String countryKey,
+                                 BigDecimal minPrice, BigDecimal maxPrice, Integer bedrooms,
+                                 PropertyType propertyType, long amenityMask,
+                                 LocalDate startDate, LocalDate endDate, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.*, ARRAY(SELECT i.image_url FROM property_images i WHERE i.property_id = p.id) AS image_urls " +
+                "FROM properties p WHERE p.available = true AND p.id > :afterId");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("afterId", afterId);
+
+        if (cityKey != null) {
+            sql.append(" AND ((p.city_key COLLATE \"C\" >= :cityKey AND p.city_key COLLATE \"C\" < :cityKeyEnd)" +
+                    " OR p.city_tokens @> string_to_array(:cityKey, ' '))");
+            params.put("cityKey", cityKey);
+            params.put("cityKeyEnd", LocationNormalizer.prefixEnd(cityKey));
+        }
+        if (stateKey != null) {
+            sql.append(" AND p.state_key = :stateKey");
+            params.put("stateKey", stateKey);
+        }
+        if (countryKey != null) {
+            sql.append(" AND p.country_key = :countryKey");
+            params.put("countryKey", countryKey);
+        }
+        if (minPrice != null) {
+            sql.append(" AND p.price_per_month >= :minPrice");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            sql.append(" AND p.price_per_month <= :maxPrice");
+            params.put("maxPrice", maxPrice);
+        }
+        if (bedrooms != null) {
+            sql.append(" AND p.bedrooms >= :bedrooms");
+            params.put("bedrooms", bedrooms);
+        }
+        if (propertyType != null) {
+            sql.append(" AND p.property_type = :propertyType");
+            params.put("propertyType", propertyType.name());
+        }
+        if (amenityMask != 0) {
+            sql.append(" AND (p.amenity_mask & :amenityMask) = :amenityMask");
+            params.put("amenityMask", amenityMask);
+        }
+        if (startDate != null && endDate != null) {
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM booked_periods bp WHERE bp.property_id = p.id " +
+                    "AND bp.start_date <= :endDate AND bp.end_date >= :startDate)");
+            params.put("startDate", startDate);
+            params.put("endDate", endDate);
+        }
+        sql.append(" ORDER BY p.id LIMIT :limit");
+        params.put("limit", limit);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map((row, metadata) -> toProperty(row)).all();
+    }
+
+    private Property toProperty(Row row) {
+        Property property = new Property();
+        property.setId(row.get("id", Long.class));
+        property.setTitle(row.get("title", String.class));
+        property.setDescription(row.get("description", String.class));
+        property.setAddress(row.get("address", String.class));
+        property.setCity(row.get("city", String.class));
+        property.setState(row.get("state", String.class));
+        property.setZipCode(row.get("zip_code", String.class));
+        property.setCountry(row.get("country", String.class));
+        property.refreshLocationKeys();
+        property.setPricePerMonth(row.get("price_per_month", BigDecimal.class));
+        property.setBedrooms(row.get("bedrooms", Integer.class));
+        property.setBathrooms(row.get("bathrooms", Integer.class));
+        property.setAreaSqft(row.get("area_sqft", Integer.class));
+        String propertyType = row.get("property_type", String.class);
+        property.setPropertyType(propertyType != null ? PropertyType.valueOf(propertyType) : null);
+        property.setLandlordId(row.get("landlord_id", Long.class));
+        property.setAvailable(row.get("available", Boolean.class));
+        property.setLatitude(row.get("latitude", Double.class));
+        property.setLongitude(row.get("longitude", Double.class));
+        Long amenityMask = row.get("amenity_mask", Long.class);
+        property.setAmenities(Amenity.fromMask(amenityMask != null ? amenityMask : 0L));
+        String[] imageUrls = row.get("image_urls", String[].class);
+        if (imageUrls != null) {
+            property.setImageUrls(Arrays.asList(imageUrls));
+        }
+        property.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        property.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return property;
+    }
+}
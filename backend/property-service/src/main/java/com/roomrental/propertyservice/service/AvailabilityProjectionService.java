@@ -0,0 +1,42 @@
+package com.roomrental.propertyservice.service;
+
+import com.roomrental.propertyservice.dto.AvailabilityEvent;
+import com.roomrental.propertyservice.model.BookedPeriod;
+import com.roomrental.propertyservice.repository.BookedPeriodRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Local copy of the active booking ranges owned by booking-service, used to filter search
+ * results by date. Events are idempotent per booking, and a snapshot replaces the whole copy.
+ */
+@Service
+public class AvailabilityProjectionService {
+
+    @Autowired
+    private BookedPeriodRepository bookedPeriodRepository;
+
+    public void apply(AvailabilityEvent event) {
+        if (event.isActive()) {
+            bookedPeriodRepository.save(toBookedPeriod(event));
+        } else if (bookedPeriodRepository.existsById(event.getBookingId())) {
+            bookedPeriodRepository.deleteById(event.getBookingId());
+        }
+    }
+
+    @Transactional
+    public void replaceAll(List<AvailabilityEvent> snapshot) {
+        bookedPeriodRepository.deleteAllInBatch();
+        bookedPeriodRepository.saveAll(snapshot.stream()
+                .filter(AvailabilityEvent::isActive)
+                .map(this::toBookedPeriod)
+                .toList());
+    }
+
+    private BookedPeriod toBookedPeriod(AvailabilityEvent event) {
+        return new BookedPeriod(event.getBookingId(), event.getPropertyId(), event.getStartDate(), event.getEndDate());
+    }
+}
@@ -1,25 +1,67 @@
 package com.roomrental.propertyservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.roomrental.propertyservice.dto.PropertyCreateRequest;
+import com.roomrental.propertyservice.model.Amenity;
 import com.roomrental.propertyservice.model.Property;
 import com.roomrental.propertyservice.model.PropertyType;
 import com.roomrental.propertyservice.repository.PropertyRepository;
+import com.roomrental.propertyservice.repository.PropertySearchSpecifications;
+import com.roomrental.propertyservice.repository.ReactivePropertySearchRepository;
+import com.roomrental.propertyservice.util.LocationNormalizer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class PropertyService {
 
+    public static final String PROPERTY_CACHE = "properties";
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int EXPORT_CHUNK_SIZE = 100;
+
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private ReactivePropertySearchRepository reactiveSearchRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     public Property createProperty(PropertyCreateRequest request) {
+        return propertyRepository.save(toProperty(request));
+    }
+
+    // saveAll runs in one transaction, so Hibernate sends the inserts as JDBC batches.
+    public List<Property> createProperties(List<PropertyCreateRequest> requests) {
+        return propertyRepository.saveAll(requests.stream().map(this::toProperty).toList());
+    }
+
+    private Property toProperty(PropertyCreateRequest request) {
         Property property = new Property();
         property.setTitle(request.getTitle());
         property.setDescription(request.getDescription());
@@ -45,30 +87,98 @@ public class PropertyService {
             property.setImageUrls(request.getImageUrls());
         }
 
-        return propertyRepository.save(property);
+        return property;
     }
 
+    // Cached entries outlive the session that loaded them, so the lazy image list is loaded first.
+    @Cacheable(value = PROPERTY_CACHE, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<Property> getPropertyById(Long id) {
-        return propertyRepository.findById(id);
-    }
-
-    public List<Property> getAllProperties() {
-        return propertyRepository.findAll();
+        Optional<Property> property = propertyRepository.findById(id);
+        property.ifPresent(p -> Hibernate.initialize(p.getImageUrls()));
+        return property;
     }
 
     public List<Property> getPropertiesByLandlord(Long landlordId) {
         return propertyRepository.findByLandlordId(landlordId);
     }
 
-    public List<Property> getAvailableProperties() {
-        return propertyRepository.findByAvailable(true);
+    public List<Property> getPropertiesAfter(Long afterId, int limit) {
+        return propertyRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    public List<Property> getAvailablePropertiesAfter(Long afterId, int limit) {
+        return propertyRepository.findByAvailableAndIdGreaterThanOrderByIdAsc(true, afterId, PageRequest.of(0, limit));
+    }
+
+    // Rows are serialized in chunks so the image collections of a whole chunk are initialized
+    // by one batch fetch instead of one select per property.
+    @Transactional(readOnly = true)
+    public void exportProperties(OutputStream out) throws IOException {
+        try (Stream<Property> properties = propertyRepository.streamAll()) {
+            Iterator<Property> iterator = properties.iterator();
+            List<Property> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    for (Property property : chunk) {
+                        out.write(objectMapper.writeValueAsBytes(property));
+                        out.write('\n');
+                        entityManager.detach(property);
+                    }
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    public Page<Property> searchProperties(String city, String state, String country,
+                                         BigDecimal minPrice, BigDecimal maxPrice,
+                                         Integer bedrooms, PropertyType propertyType, List<Amenity> amenities,
+                                         LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return propertyRepository.findAll(PropertySearchSpecifications.search(LocationNormalizer.normalize(city),
+                LocationNormalizer.normalize(state), LocationNormalizer.normalize(country),
+                minPrice, maxPrice, bedrooms, propertyType, Amenity.toMask(amenities), startDate, endDate), pageable);
+    }
+
+    public Flux<Property> streamSearch(String city, String state, String country,
+                                       BigDecimal minPrice, BigDecimal maxPrice,
+                                       Integer bedrooms, PropertyType propertyType, List<Amenity> amenities,
+                                       LocalDate startDate, LocalDate endDate, long afterId, int limit) {
+        return reactiveSearchRepository.search(LocationNormalizer.normalize(city),
+                LocationNormalizer.normalize(state), LocationNormalizer.normalize(country),
+                minPrice, maxPrice, bedrooms, propertyType, Amenity.toMask(amenities), startDate, endDate, afterId, limit);
+    }
+
+    public Page<Property> findNearby(double lat, double lng, double radiusKm, Pageable pageable) {
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90, lat - latDelta);
+        double maxLat = Math.min(90, lat + latDelta);
+
+        // A circle reaching a pole spans every longitude. Otherwise the longitude band is at most
+        // 90 degrees either side of lng, and a band crossing the antimeridian has minLng > maxLng.
+        double minLng = -180;
+        double maxLng = 180;
+        if (minLat > -90 && maxLat < 90) {
+            double lngDelta = Math.toDegrees(Math.asin(Math.min(1, Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat)))));
+            minLng = normalizeLongitude(lng - lngDelta);
+            maxLng = normalizeLongitude(lng + lngDelta);
+        }
+        return propertyRepository.findWithinRadius(lat, lng, radiusKm, minLat, maxLat, minLng, maxLng, pageable);
+    }
+
+    public Page<Property> findWithinBoundingBox(double minLat, double minLng, double maxLat, double maxLng, Pageable pageable) {
+        double centerLat = (minLat + maxLat) / 2;
+        double lngSpan = minLng <= maxLng ? maxLng - minLng : maxLng + 360 - minLng;
+        double centerLng = normalizeLongitude(minLng + lngSpan / 2);
+        return propertyRepository.findWithinBoundingBox(minLat, maxLat, minLng, maxLng, centerLat, centerLng, pageable);
     }
 
-    public Page<Property> searchProperties(String city, BigDecimal minPrice, BigDecimal maxPrice,
-                                         Integer bedrooms, PropertyType propertyType, Pageable pageable) {
-        return propertyRepository.findPropertiesWithFilters(city, minPrice, maxPrice, bedrooms, propertyType, pageable);
+    private static double normalizeLongitude(double lng) {
+        return ((lng + 540) % 360) - 180;
     }
 
+    @CacheEvict(value = PROPERTY_CACHE, key = "#id")
     public Property updateProperty(Long id, PropertyCreateRequest request) {
         Optional<Property> existingProperty = propertyRepository.findById(id);
         if (existingProperty.isPresent()) {
@@ -96,11 +206,14 @@ public class PropertyService {
                 property.setImageUrls(request.getImageUrls());
             }
 
+            // Set explicitly: an edit that only touches the image list does not trigger @PreUpdate.
+            property.setUpdatedAt(LocalDateTime.now());
             return propertyRepository.save(property);
         }
         return null;
     }
 
+    @CacheEvict(value = PROPERTY_CACHE, key = "#id")
     public boolean deleteProperty(Long id) {
         if (propertyRepository.existsById(id)) {
             propertyRepository.deleteById(id);
@@ -109,6 +222,7 @@ public class PropertyService {
         return false;
     }
 
+    @CacheEvict(value = PROPERTY_CACHE, key = "#id")
     public Property updateAvailability(Long id, Boolean available) {
         Optional<Property> existingProperty = propertyRepository.findById(id);
         if (existingProperty.isPresent()) {
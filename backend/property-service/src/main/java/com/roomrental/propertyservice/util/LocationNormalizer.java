@@ -0,0 +1,43 @@
+package com.roomrental.propertyservice.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class LocationNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private LocationNormalizer() {}
+
+    /**
+     * Folds a city, state or country name into its search key: accents removed, lower case,
+     * and every run of punctuation or whitespace collapsed into a single space, so
+     * "São  Paulo" and "sao-paulo" both become "sao paulo".
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        String key = SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Splits a key produced by {@link #normalize} into its words, so "san jose" can be found
+     * by "jose" as well as by its prefix.
+     */
+    public static String[] tokens(String key) {
+        return key == null ? new String[0] : key.split(" ");
+    }
+
+    /**
+     * Exclusive upper bound of the keys starting with {@code prefix} in "C" collation order,
+     * so a prefix match can be written as a range that a B-tree index answers in any plan.
+     */
+    public static String prefixEnd(String prefix) {
+        return prefix + new String(Character.toChars(Character.MAX_CODE_POINT));
+    }
+}
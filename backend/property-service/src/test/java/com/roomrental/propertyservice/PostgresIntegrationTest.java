@@ -0,0 +1,60 @@
+package com.roomrental.propertyservice;
+
+import com.roomrental.propertyservice.model.Property;
+import com.roomrental.propertyservice.model.PropertyType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * Runs the whole service against a real PostgreSQL server, since the search queries rely on
+ * PostgreSQL arrays, collations and functions. One server is started per test JVM and shared
+ * by every subclass; the JPA and R2DBC connections both point at it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        String hostAndPort = "localhost:" + POSTGRES.getPort() + "/postgres";
+        registry.add("spring.datasource.url", () -> "jdbc:postgresql://" + hostAndPort);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + hostAndPort);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    /** An unsaved property with every required column filled in; tests set what they filter on. */
+    protected static Property property(String title, String city) {
+        Property property = new Property();
+        property.setTitle(title);
+        property.setDescription("Test property");
+        property.setAddress("1 Test Street");
+        property.setCity(city);
+        property.setState("Test State");
+        property.setZipCode("00000");
+        property.setCountry("Test Country");
+        property.setPricePerMonth(BigDecimal.valueOf(1000));
+        property.setBedrooms(1);
+        property.setBathrooms(1);
+        property.setAreaSqft(500);
+        property.setPropertyType(PropertyType.APARTMENT);
+        property.setLandlordId(1L);
+        return property;
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.roomrental.propertyservice.config;
+
+import com.roomrental.propertyservice.PostgresIntegrationTest;
+import com.roomrental.propertyservice.model.Amenity;
+import com.roomrental.propertyservice.model.Property;
+import com.roomrental.propertyservice.repository.PropertyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseInitializerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratesLegacyAmenitiesSkippingUnknownValuesAndKeepsTheTable() {
+        Property property = propertyRepository.save(property("Legacy flat", "Legacy City"));
+        jdbcTemplate.execute("CREATE TABLE property_amenities (property_id BIGINT NOT NULL, amenity VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO property_amenities VALUES (?, 'WIFI'), (?, 'SAUNA'), (?, 'POOL')",
+                property.getId(), property.getId(), property.getId());
+
+        databaseInitializer.afterSingletonsInstantiated();
+        databaseInitializer.afterSingletonsInstantiated();
+
+        Property migrated = propertyRepository.findById(property.getId()).orElseThrow();
+        assertEquals(EnumSet.of(Amenity.WIFI, Amenity.POOL), migrated.getAmenities());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM property_amenities_legacy", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject("SELECT to_regclass('property_amenities') IS NULL", Boolean.class));
+        assertThrows(UnsupportedOperationException.class, () -> migrated.getAmenities().add(Amenity.GYM));
+    }
+}
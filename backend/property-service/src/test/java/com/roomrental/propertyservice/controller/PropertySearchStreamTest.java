@@ -0,0 +1,110 @@
+package com.roomrental.propertyservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomrental.propertyservice.PostgresIntegrationTest;
+import com.roomrental.propertyservice.model.Amenity;
+import com.roomrental.propertyservice.model.BookedPeriod;
+import com.roomrental.propertyservice.model.Property;
+import com.roomrental.propertyservice.model.PropertyType;
+import com.roomrental.propertyservice.repository.BookedPeriodRepository;
+import com.roomrental.propertyservice.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * /search/stream reads through R2DBC with hand-written SQL while /search goes through JPA, so
+ * the two are checked against each other: for the same filters they must return the same
+ * properties, field for field.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PropertySearchStreamTest extends PostgresIntegrationTest {
+
+    private static final String[] CITIES = {"Stream Town", "Streamford", "North Stream", "Riverside"};
+    private static final PropertyType[] TYPES = {PropertyType.APARTMENT, PropertyType.HOUSE, PropertyType.STUDIO};
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private BookedPeriodRepository bookedPeriodRepository;
+
+    @BeforeAll
+    void createProperties() {
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Property property = property("Stream test " + i, CITIES[i % CITIES.length]);
+            property.setState(i % 2 == 0 ? "Upper Valley" : "Lower Valley");
+            property.setCountry("Streamland");
+            property.setPricePerMonth(BigDecimal.valueOf(1000 + 25L * i));
+            property.setBedrooms(1 + i % 4);
+            property.setPropertyType(TYPES[i % TYPES.length]);
+            property.setLandlordId(10L + i % 3);
+            property.setAvailable(i % 7 != 0);
+            property.setLatitude(40.0 + i / 100.0);
+            property.setLongitude(-70.0 - i / 100.0);
+            property.setAmenities(i % 3 == 0 ? EnumSet.of(Amenity.WIFI, Amenity.POOL)
+                    : i % 3 == 1 ? EnumSet.of(Amenity.WIFI) : EnumSet.noneOf(Amenity.class));
+            property.setImageUrls(new ArrayList<>(i % 2 == 0 ? List.of("https://img.example/s" + i + ".jpg") : List.of()));
+            properties.add(property);
+        }
+        List<Property> saved = propertyRepository.saveAll(properties);
+
+        List<BookedPeriod> periods = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i += 5) {
+            periods.add(new BookedPeriod(900_000L + i, saved.get(i).getId(),
+                    LocalDate.of(2031, 1, 5 + i % 10), LocalDate.of(2031, 1, 12 + i % 10)));
+        }
+        bookedPeriodRepository.saveAll(periods);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "country=Streamland",
+            "city=stream",
+            "city=North+Stream",
+            "city=streamf&state=lower+valley",
+            "country=Streamland&minPrice=1200&maxPrice=1800",
+            "country=Streamland&bedrooms=3&propertyType=HOUSE",
+            "country=Streamland&amenities=WIFI,POOL",
+            "country=Streamland&startDate=2031-01-10&endDate=2031-01-20"
+    })
+    void streamReturnsTheSamePropertiesAsSearch(String filters) throws Exception {
+        JsonNode page = objectMapper.readTree(restTemplate.getForObject(
+                "/api/properties/search?" + filters + "&size=1000&sortBy=id&sortDir=asc", String.class));
+        List<JsonNode> searched = new ArrayList<>();
+        page.get("content").forEach(searched::add);
+
+        String body = restTemplate.getForObject("/api/properties/search/stream?" + filters + "&limit=1000", String.class);
+        List<JsonNode> streamed = new ArrayList<>();
+        if (body != null) {
+            for (String line : body.split("\n")) {
+                if (!line.isBlank()) {
+                    streamed.add(objectMapper.readTree(line));
+                }
+            }
+        }
+
+        assertFalse(searched.isEmpty(), "no properties match " + filters);
+        assertEquals(searched, streamed);
+    }
+}
@@ -0,0 +1,78 @@
+package com.roomrental.propertyservice.service;
+
+import com.roomrental.propertyservice.PostgresIntegrationTest;
+import com.roomrental.propertyservice.model.Property;
+import com.roomrental.propertyservice.repository.PropertyRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A page of search results, with every property's images read as the JSON serializer would,
+ * must cost the same number of statements whatever the page size: the page, its count, and
+ * one batch fetch of the images.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PropertySearchStatementCountTest extends PostgresIntegrationTest {
+
+    private static final String CITY = "Statement Count City";
+    private static final int PROPERTIES = 120;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void createProperties() {
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < PROPERTIES; i++) {
+            Property property = property("Flat " + i, CITY);
+            property.setImageUrls(new ArrayList<>(List.of("https://img.example/" + i + "/a.jpg",
+                    "https://img.example/" + i + "/b.jpg")));
+            properties.add(property);
+        }
+        propertyRepository.saveAll(properties);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 100})
+    void searchPageRunsFixedNumberOfStatements(int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int images = transactionTemplate.execute(status -> {
+            Page<Property> page = propertyService.searchProperties(CITY, null, null, null, null, null, null,
+                    null, null, null, PageRequest.of(0, pageSize, Sort.by("createdAt").descending()));
+            assertEquals(pageSize, page.getNumberOfElements());
+            assertEquals(PROPERTIES, page.getTotalElements());
+            return page.getContent().stream().mapToInt(p -> p.getImageUrls().size()).sum();
+        });
+
+        assertEquals(pageSize * 2, images);
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
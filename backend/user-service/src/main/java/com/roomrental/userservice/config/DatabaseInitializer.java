@@ -0,0 +1,27 @@
+package com.roomrental.userservice.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DatabaseInitializer implements SmartInitializingSingleton {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Runs once the schema exists but before the web server and DataInitializer touch the tables.
+    @Override
+    public void afterSingletonsInstantiated() {
+        syncIdSequence("users", "users_seq");
+        syncIdSequence("refresh_tokens", "refresh_tokens_seq");
+    }
+
+    // Ids come from pooled sequences (allocationSize 50) since the tables stopped using identity
+    // columns. Move the sequence past existing rows so no id is handed out twice.
+    private void syncIdSequence(String table, String sequence) {
+        jdbcTemplate.execute("SELECT setval('" + sequence + "', GREATEST(MAX(id), " +
+                "(SELECT last_value FROM " + sequence + "))) FROM " + table + " HAVING MAX(id) IS NOT NULL");
+    }
+}
@@ -1,12 +1,20 @@
 package com.roomrental.userservice.controller;
 
+import com.roomrental.userservice.dto.UserImportRequest;
 import com.roomrental.userservice.model.User;
 import com.roomrental.userservice.model.UserRole;
+import com.roomrental.userservice.security.PasswordHashingBusyException;
 import com.roomrental.userservice.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,14 +22,46 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class AdminController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_LIMIT = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private UserService userService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(defaultValue = "0") Long afterId,
+                                                  @RequestParam(defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<User> users = userService.getUsersAfter(afterId, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        return response.body(users);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> userService.exportUsers(out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(@Valid @RequestBody UserImportRequest request) {
+        try {
+            return ResponseEntity.ok(userService.importUsers(request.getUsers()));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Error: " + e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: Some users were created concurrently, please retry the import");
+        }
     }
 
     @GetMapping("/{id}")
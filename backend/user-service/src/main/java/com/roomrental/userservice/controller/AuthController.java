@@ -1,8 +1,10 @@
 package com.roomrental.userservice.controller;
 
 import com.roomrental.userservice.dto.LoginRequest;
+import com.roomrental.userservice.dto.RefreshTokenRequest;
 import com.roomrental.userservice.dto.RegisterRequest;
 import com.roomrental.userservice.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +17,25 @@ public class AuthController {
     @Autowired
     AuthService authService;
 
+    // The remote address is the client the gateway saw when the request came through it (see
+    // server.tomcat.remoteip) and the socket address otherwise.
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        return authService.authenticateUser(loginRequest);
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
+        return authService.authenticateUser(loginRequest, request.getRemoteAddr());
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.refreshToken(request);
+    }
+
+    @PostMapping("/signout")
+    public ResponseEntity<?> signOut(@Valid @RequestBody RefreshTokenRequest request,
+                                     @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        return authService.signOut(request, accessToken);
     }
 
     @PostMapping("/signup")
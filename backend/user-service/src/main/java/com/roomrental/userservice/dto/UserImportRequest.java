@@ -0,0 +1,18 @@
+package com.roomrental.userservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class UserImportRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid RegisterRequest> users;
+
+    public UserImportRequest() {}
+
+    public List<RegisterRequest> getUsers() { return users; }
+    public void setUsers(List<RegisterRequest> users) { this.users = users; }
+}
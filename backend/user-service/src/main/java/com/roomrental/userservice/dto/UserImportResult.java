@@ -0,0 +1,22 @@
+package com.roomrental.userservice.dto;
+
+public class UserImportResult {
+    private int requested;
+    private int imported;
+    private int skipped;
+
+    public UserImportResult(int requested, int imported) {
+        this.requested = requested;
+        this.imported = imported;
+        this.skipped = requested - imported;
+    }
+
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+}
@@ -0,0 +1,125 @@
+package com.roomrental.userservice.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the delegate encoder on a fixed-size pool with a bounded queue. Once the queue is full,
+ * or a queued hash does not complete within the wait timeout, callers get a
+ * {@link PasswordHashingBusyException} instead of tying up another request thread behind BCrypt.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long waitTimeoutMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Encodes passwords in bulk on the hashing pool, queueing at most one hash per pool thread at
+     * a time so a large import leaves the rest of the queue to sign-in requests.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int batchSize = executor.getMaximumPoolSize();
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += batchSize) {
+            List<Future<String>> batch = new ArrayList<>(batchSize);
+            try {
+                for (CharSequence rawPassword : rawPasswords.subList(from, Math.min(from + batchSize, rawPasswords.size()))) {
+                    batch.add(enqueue(() -> encodeTimer.record(() -> delegate.encode(rawPassword))));
+                }
+                for (Future<String> future : batch) {
+                    encoded.add(await(future));
+                }
+            } finally {
+                batch.forEach(future -> future.cancel(true));
+            }
+        }
+        return encoded;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        return await(enqueue(task));
+    }
+
+    private <T> Future<T> enqueue(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException("Too many concurrent sign-in requests, please retry shortly");
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingBusyException("Password check timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password check was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,61 +1,102 @@
 package com.roomrental.userservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roomrental.userservice.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+
     @Value("${app.jwtSecret:mySecretKey}")
     private String jwtSecret;
 
-    @Value("${app.jwtExpirationMs:86400000}")
+    @Value("${app.jwtExpirationMs:900000}")
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwtVerifiedCacheSize:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    // Tokens whose signature has already been checked. The expiry claim is re-checked on every hit,
+    // so an entry never outlives the token it came from.
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
     }
 
     public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateJwtToken((User) authentication.getPrincipal());
+    }
 
+    public String generateJwtToken(User userPrincipal) {
+        // uid and role let the API gateway forward the caller's identity without a lookup;
+        // jti lets a single token be revoked on sign-out.
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userPrincipal.getUsername())
+                .claim("uid", userPrincipal.getId())
+                .claim("role", userPrincipal.getRole().name())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
+    /**
+     * Verifies the token once and returns its claims, or null if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (cached.getExpiration() != null && cached.getExpiration().before(new Date())) {
+                verifiedTokens.invalidate(token);
+                return null;
+            }
+            return cached;
+        }
 
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+            return claims;
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            logger.debug("Invalid JWT token: {}", e.getMessage());
+        } catch (SignatureException e) {
+            // Either a forged token or a secret that differs between services.
+            logger.warn("Invalid JWT signature: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            logger.debug("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            logger.debug("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            logger.debug("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package com.roomrental.userservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory sliding-window limiter for sign-in attempts, keyed separately by username and by
+ * client IP so that both a single targeted account and a single noisy source are throttled.
+ */
+@Component
+public class LoginRateLimiter {
+    private final Map<String, Deque<Long>> attempts = new ConcurrentHashMap<>();
+
+    @Value("${app.login.windowMs:60000}")
+    private long windowMs;
+
+    @Value("${app.login.maxAttemptsPerUser:10}")
+    private int maxAttemptsPerUser;
+
+    @Value("${app.login.maxAttemptsPerIp:50}")
+    private int maxAttemptsPerIp;
+
+    private final Counter throttledByUser;
+    private final Counter throttledByIp;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry) {
+        this.throttledByUser = Counter.builder("auth.login.throttled").tag("key", "username").register(meterRegistry);
+        this.throttledByIp = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+    }
+
+    /**
+     * Records an attempt and returns false if either the username or the IP is over its limit.
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null && !record("ip:" + clientIp, maxAttemptsPerIp, now)) {
+            throttledByIp.increment();
+            return false;
+        }
+        if (username != null && !record("user:" + username.toLowerCase(), maxAttemptsPerUser, now)) {
+            throttledByUser.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    private boolean record(String key, int limit, long now) {
+        boolean[] allowed = new boolean[1];
+        // compute() runs atomically per key, so a concurrent purge cannot drop this attempt.
+        attempts.compute(key, (k, window) -> {
+            if (window == null) {
+                window = new ArrayDeque<>();
+            }
+            evictExpired(window, now);
+            if (window.size() < limit) {
+                window.addLast(now);
+                allowed[0] = true;
+            }
+            return window;
+        });
+        return allowed[0];
+    }
+
+    private void evictExpired(Deque<Long> window, long now) {
+        while (!window.isEmpty() && window.peekFirst() <= now - windowMs) {
+            window.pollFirst();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.login.windowMs:60000}")
+    public void purgeIdleKeys() {
+        long now = System.currentTimeMillis();
+        for (String key : attempts.keySet()) {
+            attempts.computeIfPresent(key, (k, window) -> {
+                evictExpired(window, now);
+                return window.isEmpty() ? null : window;
+            });
+        }
+    }
+}
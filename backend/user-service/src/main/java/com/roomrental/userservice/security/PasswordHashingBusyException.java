@@ -0,0 +1,7 @@
+package com.roomrental.userservice.security;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.roomrental.userservice.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before their expiry (e.g. on sign-out), keyed by jti. An entry is only
+ * kept until the token would have expired anyway, so the set stays small with short-lived tokens.
+ */
+@Component
+public class TokenRevocationList {
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    public void revoke(Claims claims) {
+        if (claims.getId() != null && claims.getExpiration() != null) {
+            revokedUntil.put(claims.getId(), claims.getExpiration().getTime());
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        return claims.getId() != null && revokedUntil.containsKey(claims.getId());
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedUntil.values().removeIf(expiresAt -> expiresAt < now);
+    }
+}
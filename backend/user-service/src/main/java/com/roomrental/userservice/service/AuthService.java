@@ -2,11 +2,19 @@ package com.roomrental.userservice.service;
 
 import com.roomrental.userservice.dto.JwtResponse;
 import com.roomrental.userservice.dto.LoginRequest;
+import com.roomrental.userservice.dto.RefreshTokenRequest;
 import com.roomrental.userservice.dto.RegisterRequest;
 import com.roomrental.userservice.model.User;
 import com.roomrental.userservice.repository.UserRepository;
 import com.roomrental.userservice.security.JwtUtils;
+import com.roomrental.userservice.security.LoginRateLimiter;
+import com.roomrental.userservice.security.PasswordHashingBusyException;
+import com.roomrental.userservice.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,6 +23,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class AuthService {
 
@@ -30,48 +40,108 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
-    public ResponseEntity<?> authenticateUser(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager
-                .authenticate(new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()));
+    @Autowired
+    LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    TokenRevocationList revocationList;
+
+    public ResponseEntity<?> authenticateUser(LoginRequest loginRequest, String clientIp) {
+        if (!loginRateLimiter.tryAcquire(loginRequest.getUsername(), clientIp)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.getWindowMs() / 1000))
+                    .body("Error: Too many sign-in attempts, please try again later");
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager
+                    .authenticate(new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()));
+        } catch (PasswordHashingBusyException e) {
+            return serviceBusy(e);
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
 
-        User userDetails = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(jwtResponse((User) authentication.getPrincipal()));
+    }
 
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                userDetails.getId(),
-                userDetails.getUsername(),
-                userDetails.getEmail(),
-                userDetails.getFirstName(),
-                userDetails.getLastName(),
-                userDetails.getRole()));
+    public ResponseEntity<?> refreshToken(RefreshTokenRequest request) {
+        Long userId = refreshTokenService.consume(request.getRefreshToken());
+        Optional<User> user = userId != null ? userRepository.findById(userId) : Optional.empty();
+        if (user.isEmpty() || !user.get().isEnabled()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Error: Refresh token is invalid or expired");
+        }
+
+        return ResponseEntity.ok(jwtResponse(user.get()));
     }
 
-    public ResponseEntity<?> registerUser(RegisterRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity.badRequest()
-                    .body("Error: Username is already taken!");
+    public ResponseEntity<?> signOut(RefreshTokenRequest request, String accessToken) {
+        refreshTokenService.consume(request.getRefreshToken());
+        if (accessToken != null) {
+            Claims claims = jwtUtils.parseClaims(accessToken);
+            if (claims != null) {
+                revocationList.revoke(claims);
+            }
         }
+        return ResponseEntity.ok("Signed out successfully");
+    }
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity.badRequest()
-                    .body("Error: Email is already in use!");
+    public ResponseEntity<?> registerUser(RegisterRequest signUpRequest) {
+        String encodedPassword;
+        try {
+            encodedPassword = encoder.encode(signUpRequest.getPassword());
+        } catch (PasswordHashingBusyException e) {
+            return serviceBusy(e);
         }
 
         User user = new User(signUpRequest.getUsername(),
                 signUpRequest.getEmail(),
-                encoder.encode(signUpRequest.getPassword()),
+                encodedPassword,
                 signUpRequest.getFirstName(),
                 signUpRequest.getLastName());
 
         user.setRole(signUpRequest.getRole());
         user.setPhoneNumber(signUpRequest.getPhoneNumber());
 
-        userRepository.save(user);
+        // The unique constraints on username and email decide duplicates in a single insert,
+        // which also closes the race between two concurrent sign-ups for the same name.
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String message = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (message.contains("(username)")) {
+                return ResponseEntity.badRequest().body("Error: Username is already taken!");
+            }
+            if (message.contains("(email)")) {
+                return ResponseEntity.badRequest().body("Error: Email is already in use!");
+            }
+            throw e;
+        }
 
         return ResponseEntity.ok("User registered successfully!");
     }
+
+    private JwtResponse jwtResponse(User user) {
+        return new JwtResponse(jwtUtils.generateJwtToken(user),
+                refreshTokenService.issue(user.getId()),
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getRole());
+    }
+
+    private ResponseEntity<?> serviceBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Error: " + e.getMessage());
+    }
 }
\ No newline at end of file
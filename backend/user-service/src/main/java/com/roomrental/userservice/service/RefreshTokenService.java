@@ -0,0 +1,76 @@
+package com.roomrental.userservice.service;
+
+import com.roomrental.userservice.model.RefreshToken;
+import com.roomrental.userservice.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Service
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.refreshExpirationMs:2592000000}")
+    private long refreshExpirationMs;
+
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs));
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), userId, expiresAt));
+        return rawToken;
+    }
+
+    /**
+     * Deletes the token and returns the id of the user it belonged to, or null if the token is
+     * unknown, expired or was already used. Each token can be consumed exactly once, even under
+     * concurrent requests, because only one delete can remove the row.
+     */
+    @Transactional
+    public Long consume(String rawToken) {
+        String tokenHash = hash(rawToken);
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(tokenHash);
+        if (stored.isEmpty() || refreshTokenRepository.deleteByTokenHash(tokenHash) == 0) {
+            return null;
+        }
+        return stored.get().isExpired() ? null : stored.get().getUserId();
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.refreshPurgeIntervalMs:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
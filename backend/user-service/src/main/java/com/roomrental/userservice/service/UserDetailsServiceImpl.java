@@ -3,6 +3,7 @@ package com.roomrental.userservice.service;
 import com.roomrental.userservice.model.User;
 import com.roomrental.userservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,6 +11,8 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
+    public static final String PRINCIPAL_CACHE = "principals";
+
     @Autowired
     UserRepository userRepository;
 
@@ -20,4 +23,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return user;
     }
+
+    // Used by AuthTokenFilter on every authenticated request. Entries are evicted by UserService
+    // when a user's role changes or the user is deleted, and otherwise expire after a short TTL.
+    @Cacheable(value = PRINCIPAL_CACHE, key = "#username")
+    public UserDetails loadPrincipal(String username) throws UsernameNotFoundException {
+        return loadUserByUsername(username);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,29 @@
 package com.roomrental.userservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomrental.userservice.dto.RegisterRequest;
+import com.roomrental.userservice.dto.UserImportResult;
 import com.roomrental.userservice.model.User;
 import com.roomrental.userservice.model.UserRole;
 import com.roomrental.userservice.repository.UserRepository;
+import com.roomrental.userservice.security.BoundedPasswordEncoder;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -15,8 +31,36 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    public List<User> getUsersAfter(Long afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) throws IOException {
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+                entityManager.detach(user);
+            }
+        }
     }
 
     public User findById(Long id) {
@@ -24,25 +68,75 @@ public class UserService {
         return user.orElse(null);
     }
 
+    /**
+     * Creates the users through batched JPA inserts. Users whose username or email already exists,
+     * or repeats an earlier entry of the same import, are skipped.
+     */
+    public UserImportResult importUsers(List<RegisterRequest> requests) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (User existing : userRepository.findByUsernameInOrEmailIn(
+                requests.stream().map(RegisterRequest::getUsername).toList(),
+                requests.stream().map(RegisterRequest::getEmail).toList())) {
+            usernames.add(existing.getUsername());
+            emails.add(existing.getEmail());
+        }
+
+        List<RegisterRequest> accepted = new ArrayList<>();
+        for (RegisterRequest request : requests) {
+            if (!usernames.contains(request.getUsername()) && !emails.contains(request.getEmail())) {
+                usernames.add(request.getUsername());
+                emails.add(request.getEmail());
+                accepted.add(request);
+            }
+        }
+
+        // Hashed concurrently on the password encoder's bounded pool rather than the common ForkJoinPool
+        List<String> passwords = passwordEncoder.encodeAll(accepted.stream().map(RegisterRequest::getPassword).toList());
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            RegisterRequest request = accepted.get(i);
+            User user = new User(request.getUsername(), request.getEmail(), passwords.get(i),
+                    request.getFirstName(), request.getLastName());
+            user.setRole(request.getRole() != null ? request.getRole() : UserRole.TENANT);
+            user.setPhoneNumber(request.getPhoneNumber());
+            users.add(user);
+        }
+
+        userRepository.saveAll(users);
+        return new UserImportResult(requests.size(), users.size());
+    }
+
     public boolean updateUserRole(Long id, UserRole role) {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             user.setRole(role);
             userRepository.save(user);
+            evictPrincipal(user.getUsername());
             return true;
         }
         return false;
     }
 
     public boolean deleteUser(Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
+        Optional<User> userOptional = userRepository.findById(id);
+        if (userOptional.isPresent()) {
+            userRepository.delete(userOptional.get());
+            refreshTokenService.revokeAll(id);
+            evictPrincipal(userOptional.get().getUsername());
             return true;
         }
         return false;
     }
 
+    private void evictPrincipal(String username) {
+        Cache principals = cacheManager.getCache(UserDetailsServiceImpl.PRINCIPAL_CACHE);
+        if (principals != null) {
+            principals.evict(username);
+        }
+    }
+
     public User save(User user) {
         return userRepository.save(user);
     }
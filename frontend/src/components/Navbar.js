@@ -3,6 +3,7 @@ import { AppBar, Toolbar, Typography, Button, Box, IconButton } from '@mui/mater
 import { Link, useNavigate } from 'react-router-dom';
 import { useSelector, useDispatch } from 'react-redux';
 import { logout } from '../store/authSlice';
+import { authAPI } from '../services/api';
 
 const Navbar = () => {
   const navigate = useNavigate();
@@ -10,6 +11,10 @@ const Navbar = () => {
   const { isAuthenticated, user } = useSelector((state) => state.auth);
 
   const handleLogout = () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      authAPI.signout(refreshToken).catch(() => {});
+    }
     dispatch(logout());
     navigate('/');
   };
@@ -52,10 +52,10 @@ const Dashboard = () => {
       } else if (user.role === 'LANDLORD') {
         const [bookingsResponse, propertiesResponse] = await Promise.all([
           bookingAPI.getBookingsByLandlord(user.id),
-          propertyAPI.getAllProperties()
+          propertyAPI.getPropertiesByLandlord(user.id)
         ]);
         setBookings(bookingsResponse.data);
-        setProperties(propertiesResponse.data.filter(p => p.landlordId === user.id));
+        setProperties(propertiesResponse.data);
       }
     } catch (error) {
       console.error('Error fetching user data:', error);
@@ -36,10 +36,11 @@ const Login = () => {
 
     try {
       const response = await authAPI.login(formData);
-      const { token, id, username, email, firstName, lastName, role } = response.data;
+      const { token, refreshToken, id, username, email, firstName, lastName, role } = response.data;
 
       dispatch(loginSuccess({
         token,
+        refreshToken,
         user: { id, username, email, firstName, lastName, role },
       }));
 
@@ -78,10 +78,8 @@ const ManageProperties = () => {
   const fetchProperties = async () => {
     try {
       setLoading(true);
-      const response = await propertyAPI.getAllProperties();
-      // Filter properties for current landlord
-      const landlordProperties = response.data.filter(p => p.landlordId === user.id);
-      setProperties(landlordProperties);
+      const response = await propertyAPI.getPropertiesByLandlord(user.id);
+      setProperties(response.data);
     } catch (error) {
       setError('Failed to fetch properties');
       console.error('Error fetching properties:', error);
@@ -30,6 +30,9 @@ const Properties = () => {
     propertyType: '',
   });
 
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
   const dispatch = useDispatch();
   const { properties, loading, error } = useSelector((state) => state.properties);
 
@@ -44,15 +47,30 @@ const Properties = () => {
       if (Object.values(filters).some(value => value !== '')) {
         response = await propertyAPI.searchProperties(filters);
         dispatch(fetchPropertiesSuccess(response.data.content || response.data));
+        setNextCursor(null);
       } else {
-        response = await propertyAPI.getAllProperties();
+        response = await propertyAPI.getPropertiesPage();
         dispatch(fetchPropertiesSuccess(response.data));
+        setNextCursor(response.headers['x-next-cursor'] || null);
       }
     } catch (error) {
       dispatch(fetchPropertiesFailure(error.message));
     }
   };
 
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await propertyAPI.getPropertiesPage(nextCursor);
+      dispatch(fetchPropertiesSuccess([...properties, ...response.data]));
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (error) {
+      dispatch(fetchPropertiesFailure(error.message));
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleFilterChange = (e) => {
     setSearchFilters({
       ...searchFilters,
@@ -232,6 +250,14 @@ const Properties = () => {
         ))}
       </Grid>
 
+      {nextCursor && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 4 }}>
+          <Button variant="outlined" onClick={handleLoadMore} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </Button>
+        </Box>
+      )}
+
       {properties.length === 0 && !loading && (
         <Typography variant="h6" textAlign="center" sx={{ mt: 4 }}>
           No properties found
@@ -3,6 +3,20 @@ import axios from 'axios';
 // Using API Gateway for all requests
 const API_GATEWAY_URL = 'http://localhost:8080';
 
+// Concurrent 401s share one refresh call, since each refresh token can only be used once.
+let refreshInFlight = null;
+
+const refreshAccessToken = (refreshToken) => {
+  if (!refreshInFlight) {
+    refreshInFlight = axios
+      .post(`${API_GATEWAY_URL}/api/auth/refresh`, { refreshToken })
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
 const createServiceClient = (baseURL) => {
   const client = axios.create({
     baseURL,
@@ -26,9 +40,24 @@ const createServiceClient = (baseURL) => {
 
   client.interceptors.response.use(
     (response) => response,
-    (error) => {
+    async (error) => {
+      const original = error.config;
+      const refreshToken = localStorage.getItem('refreshToken');
+      if (error.response?.status === 401 && refreshToken && original && !original._retried) {
+        original._retried = true;
+        try {
+          const { data } = await refreshAccessToken(refreshToken);
+          localStorage.setItem('token', data.token);
+          localStorage.setItem('refreshToken', data.refreshToken);
+          original.headers.Authorization = `Bearer ${data.token}`;
+          return client(original);
+        } catch (refreshError) {
+          // fall through to sign-in below
+        }
+      }
       if (error.response?.status === 401) {
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         window.location.href = '/login';
       }
       return Promise.reject(error);
@@ -40,29 +69,50 @@ const createServiceClient = (baseURL) => {
 
 const apiClient = createServiceClient(API_GATEWAY_URL);
 
+// List endpoints return one page at a time and name the afterId of the next page in
+// X-Next-Cursor; the header is absent on the last page.
+const PAGE_SIZE = 1000;
+
+const getPage = (path, afterId = 0) => apiClient.get(path, { params: { afterId, limit: PAGE_SIZE } });
+
+const getEveryPage = async (path) => {
+  const items = [];
+  let afterId = 0;
+  do {
+    const response = await getPage(path, afterId);
+    items.push(...response.data);
+    afterId = response.headers['x-next-cursor'];
+  } while (afterId);
+  return { data: items };
+};
+
 export const authAPI = {
   login: (credentials) => apiClient.post('/api/auth/signin', credentials),
   register: (userData) => apiClient.post('/api/auth/signup', userData),
+  signout: (refreshToken) => apiClient.post('/api/auth/signout', { refreshToken }),
 };
 
 export const propertyAPI = {
-  getAllProperties: () => apiClient.get('/api/properties'),
+  getAllProperties: () => getEveryPage('/api/properties'),
+  getPropertiesPage: (afterId = 0) => apiClient.get('/api/properties', { params: { afterId } }),
+  getPropertiesByLandlord: (landlordId) => apiClient.get(`/api/properties/landlord/${landlordId}`),
   getPropertyById: (id) => apiClient.get(`/api/properties/${id}`),
   searchProperties: (params) => apiClient.get('/api/properties/search', { params }),
   createProperty: (propertyData) => apiClient.post('/api/properties', propertyData),
+  createProperties: (properties) => apiClient.post('/api/properties/bulk', { properties }),
   updateProperty: (id, propertyData) => apiClient.put(`/api/properties/${id}`, propertyData),
   deleteProperty: (id) => apiClient.delete(`/api/properties/${id}`),
 };
 
 export const userAPI = {
-  getAllUsers: () => apiClient.get('/api/users'),
+  getAllUsers: () => getEveryPage('/api/users'),
   getUserById: (id) => apiClient.get(`/api/users/${id}`),
   updateUserRole: (id, role) => apiClient.put(`/api/users/${id}/role?role=${role}`),
   deleteUser: (id) => apiClient.delete(`/api/users/${id}`),
 };
 
 export const bookingAPI = {
-  getAllBookings: () => apiClient.get('/api/bookings'),
+  getAllBookings: () => getEveryPage('/api/bookings'),
   getBookingById: (id) => apiClient.get(`/api/bookings/${id}`),
   createBooking: (bookingData) => apiClient.post('/api/bookings', bookingData),
   updateBookingStatus: (id, status) => apiClient.put(`/api/bookings/${id}/status?status=${status}`),
@@ -72,6 +122,14 @@ export const bookingAPI = {
     apiClient.get(`/api/bookings/property/${propertyId}/availability`, {
       params: { startDate, endDate },
     }),
+  getAvailabilityCalendar: (propertyId, from, to) =>
+    apiClient.get(`/api/bookings/property/${propertyId}/calendar`, {
+      params: { from, to },
+    }),
+  getAvailabilityCalendars: (propertyIds, from, to) =>
+    apiClient.get('/api/bookings/calendar', {
+      params: { propertyIds: propertyIds.join(','), from, to },
+    }),
 };
 
 // Export API client